@@ -0,0 +1,53 @@
+package xyz.zuner.javafxassignment.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * Runs the benchmarks with allocation profiling on.
+ * </p>
+ * <br>
+ * <p>Takes the usual JMH command line, e.g. {@code CartBenchmark -p cartSize=100} to run one suite with one cart
+ * size, and always adds the GC profiler so every result comes with its allocation rate per operation
+ * ({@code gc.alloc.rate.norm}).</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions commandLine;
+        try {
+            commandLine = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            // nothing to run, let JMH print what was asked for
+            Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+package xyz.zuner.javafxassignment.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.zuner.javafxassignment.objects.Cart;
+import xyz.zuner.javafxassignment.objects.CartItem;
+import xyz.zuner.javafxassignment.objects.Inventory;
+import xyz.zuner.javafxassignment.objects.Product;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Adding to a cart and reading its totals, for carts and catalogs of different sizes.
+ * </p>
+ * <br>
+ * <p>Each operation leaves the cart as it found it, so the cart size stays fixed for the whole run: adding a new
+ * line removes it again, adding to an existing line gives the unit back. Adding to an existing line goes through
+ * {@code Cart.findItemByProductAndOptions}, which is private and only reachable this way.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    @Param({"1", "10", "100"})
+    public int cartSize;
+
+    private Cart cart;
+    private Product inCart; // the product of the last line
+    private CartItem lastLine;
+    private Product notInCart;
+
+    @Setup
+    public void setUp() {
+        Inventory inventory = Fixtures.inventory(catalogSize);
+        List<Product> products = inventory.getAllProducts();
+        cart = Fixtures.cart(products, cartSize);
+        List<CartItem> items = cart.getItems();
+        lastLine = items.get(items.size() - 1);
+        inCart = lastLine.getProduct();
+        notInCart = products.get(products.size() - 1);
+    }
+
+    /**
+     * Adds a product that is not in the cart yet, then removes it.
+     */
+    @Benchmark
+    public int addNewLine() {
+        cart.addProduct(notInCart, 1);
+        cart.removeProduct(notInCart);
+        return cart.getItemCount();
+    }
+
+    /**
+     * Adds a unit of a product already in the cart, then gives it back.
+     */
+    @Benchmark
+    public int addToExistingLine() {
+        cart.addProduct(inCart, 1);
+        cart.decrementItem(lastLine);
+        return lastLine.getQuantity();
+    }
+
+    /**
+     * Reads every total while the cart is unchanged.
+     */
+    @Benchmark
+    public void totals(Blackhole blackhole) {
+        blackhole.consume(cart.getSubtotalCost());
+        blackhole.consume(cart.getTotalTax());
+        blackhole.consume(cart.getTotalCostBeforeDiscounts());
+        blackhole.consume(cart.getTotalDiscountAmount());
+        blackhole.consume(cart.getTotalCostAfterDiscounts());
+    }
+
+    /**
+     * Reads the totals after every change, like the cart panel does.
+     */
+    @Benchmark
+    public long totalsAfterChange() {
+        cart.incrementItem(lastLine);
+        long total = cart.getTotalCostAfterDiscounts();
+        cart.decrementItem(lastLine);
+        return total + cart.getTotalCostAfterDiscounts();
+    }
+}
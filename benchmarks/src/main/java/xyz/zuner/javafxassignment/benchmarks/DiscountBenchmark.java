@@ -0,0 +1,67 @@
+package xyz.zuner.javafxassignment.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.zuner.javafxassignment.objects.Discount;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Pricing a line with each type of discount.
+ * </p>
+ * <br>
+ * <p>The discounts are set up like the ones in the bundled discount file.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountBenchmark {
+
+    @Param({"FLAT", "PERCENTAGE", "BOGO", "BOGO_PERCENTAGE"})
+    public Discount.DiscountType type;
+
+    @Param({"1", "3", "100"})
+    public int quantity;
+
+    private Discount discount;
+    private long amount;
+
+    @Setup
+    public void setUp() {
+        discount = switch (type) {
+            case FLAT -> new Discount("FLAT10", 10, false, false, Set.of());
+            case PERCENTAGE -> new Discount("SAVE20", 20, true, false, Set.of());
+            case BOGO -> new Discount("BOGO", type, 2, 1.0, false, Set.of());
+            case BOGO_PERCENTAGE -> new Discount("BOGO50", type, 2, 0.5, false, Set.of());
+        };
+        amount = 74_999L * quantity;
+    }
+
+    @Benchmark
+    public long applyTo() {
+        return discount.applyTo(amount, quantity);
+    }
+}
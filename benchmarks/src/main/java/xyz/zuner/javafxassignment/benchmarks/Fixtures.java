@@ -0,0 +1,114 @@
+package xyz.zuner.javafxassignment.benchmarks;
+
+import xyz.zuner.javafxassignment.objects.Cart;
+import xyz.zuner.javafxassignment.objects.CartTotals;
+import xyz.zuner.javafxassignment.objects.Inventory;
+import xyz.zuner.javafxassignment.objects.Product;
+import xyz.zuner.javafxassignment.objects.PromotionResolver;
+import xyz.zuner.javafxassignment.objects.RedemptionLedger;
+import xyz.zuner.javafxassignment.objects.ReservationManager;
+import xyz.zuner.javafxassignment.objects.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Builds the catalogs, carts and transactions the benchmarks run against.
+ * </p>
+ * <br>
+ * <p>Catalogs are generated from a fixed seed and loaded through {@link Inventory} like a real catalog file, with
+ * the stock journal turned off and the snapshot kept in a temporary directory. Every product has enough stock that a
+ * benchmark never runs out.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+final class Fixtures {
+
+    static final String[] CATEGORIES = {"Smartphones", "Laptops", "Tablets", "Audio", "Cameras", "Accessories"};
+    private static final int STOCK = 1_000_000_000;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Generates a catalog of the given size and loads it.
+     *
+     * @param size number of products
+     * @return Inventory
+     */
+    static Inventory inventory(int size) {
+        try {
+            Path directory = Files.createTempDirectory("benchmark-catalog");
+            Path catalog = directory.resolve("catalog.csv");
+            Random random = new Random(size);
+            try (BufferedWriter writer = Files.newBufferedWriter(catalog, StandardCharsets.UTF_8)) {
+                writer.write("upc,name,price,stock,category,options\n");
+                for (int i = 0; i < size; i++) {
+                    writer.write(String.format("%06d,Product %d,%d.%02d,%d,%s,Color=Black|Blue|Red;Storage=64GB|128GB\n",
+                            i, i, 10 + random.nextInt(1990), random.nextInt(100), STOCK,
+                            CATEGORIES[random.nextInt(CATEGORIES.length)]));
+                }
+            }
+            System.setProperty("store.journal", "false");
+            System.setProperty("store.catalog.snapshot", directory.resolve("catalog.snapshot").toString());
+            return new Inventory(catalog);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates an empty cart with its own reservation manager, so holds never expire during a run.
+     *
+     * @return Cart
+     */
+    static Cart cart() {
+        ReservationManager reservations = new ReservationManager(TimeUnit.HOURS.toMillis(1), 1000);
+        return new Cart(reservations, PromotionResolver.getShared(), new RedemptionLedger());
+    }
+
+    /**
+     * Creates a cart holding the first lines of the catalog, one to three units each.
+     *
+     * @param products the catalog
+     * @param lines    number of lines
+     * @return Cart
+     */
+    static Cart cart(List<Product> products, int lines) {
+        if (lines > products.size()) {
+            throw new IllegalArgumentException("Cart of " + lines + " lines needs a larger catalog than " + products.size());
+        }
+        Cart cart = cart();
+        for (int i = 0; i < lines; i++) {
+            cart.addProduct(products.get(i), 1 + i % 3);
+        }
+        return cart;
+    }
+
+    /**
+     * Creates the transaction a checkout of the cart would produce, without checking out.
+     *
+     * @param cart the cart
+     * @return Transaction
+     */
+    static Transaction transaction(Cart cart) {
+        CartTotals totals = cart.getTotals();
+        return new Transaction(cart.getAppliedDiscountCodes(), cart.getItems(), totals.getSubtotal(), totals.getTax(),
+                totals.getDiscount(), totals.getTotal(), cart.getPromotions());
+    }
+}
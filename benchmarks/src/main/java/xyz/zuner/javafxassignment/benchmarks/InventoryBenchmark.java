@@ -0,0 +1,69 @@
+package xyz.zuner.javafxassignment.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.zuner.javafxassignment.objects.Inventory;
+import xyz.zuner.javafxassignment.objects.Product;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Listing the catalog, as the store does whenever "All Products" is shown.
+ * </p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private Inventory inventory;
+
+    @Setup
+    public void setUp() {
+        inventory = Fixtures.inventory(catalogSize);
+    }
+
+    @Benchmark
+    public List<Product> getAllProducts() {
+        return inventory.getAllProducts();
+    }
+
+    /**
+     * Lists the catalog and reads every product in it, as the catalog view eventually does.
+     */
+    @Benchmark
+    public long getAllProductsAndScan() {
+        long total = 0;
+        List<Product> products = inventory.getAllProducts();
+        for (int i = 0, size = products.size(); i < size; i++) {
+            total += products.get(i).getPriceCents();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,97 @@
+package xyz.zuner.javafxassignment.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.zuner.javafxassignment.objects.Product;
+import xyz.zuner.javafxassignment.util.Money;
+import xyz.zuner.javafxassignment.util.PricingUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * The {@link PricingUtil} calculations every cart line goes through.
+ * </p>
+ * <br>
+ * <p>{@link #lineTotalDouble()} repeats the line total in floating point, the way prices were calculated before
+ * they were kept in cents, as a baseline for {@link #lineTotal()}.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    private Product product;
+    private int quantity;
+    private long subtotal;
+
+    @Setup
+    public void setUp() {
+        product = new Product("iPhone 15", "002", 499.99, 12, "Smartphones");
+        quantity = 3;
+        subtotal = PricingUtil.getSubtotal(product, quantity);
+    }
+
+    @Benchmark
+    public long markedUpPrice() {
+        return PricingUtil.getMarkedUpPrice(product);
+    }
+
+    @Benchmark
+    public long subtotal() {
+        return PricingUtil.getSubtotal(product, quantity);
+    }
+
+    @Benchmark
+    public long salesTax() {
+        return PricingUtil.calculateSalesTax(subtotal);
+    }
+
+    @Benchmark
+    public long totalAfterTax() {
+        return PricingUtil.getTotalPriceAfterTax(product, quantity);
+    }
+
+    @Benchmark
+    public long totalAfterDiscount() {
+        return PricingUtil.getTotalPriceAfterDiscount(subtotal, 2000);
+    }
+
+    /**
+     * Marked-up line total with tax, in cents.
+     */
+    @Benchmark
+    public long lineTotal() {
+        long lineSubtotal = Money.times(PricingUtil.getMarkedUpPrice(product), quantity);
+        return lineSubtotal + PricingUtil.calculateSalesTax(lineSubtotal);
+    }
+
+    /**
+     * The same line total in dollars as a double.
+     */
+    @Benchmark
+    public double lineTotalDouble() {
+        double lineSubtotal = product.getPrice() * 1.5 * quantity;
+        return lineSubtotal + lineSubtotal * 0.07;
+    }
+}
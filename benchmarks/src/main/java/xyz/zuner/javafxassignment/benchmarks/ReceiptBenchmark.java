@@ -0,0 +1,76 @@
+package xyz.zuner.javafxassignment.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.zuner.javafxassignment.objects.Inventory;
+import xyz.zuner.javafxassignment.objects.ReceiptRenderer;
+import xyz.zuner.javafxassignment.objects.Transaction;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Generating the receipt for a transaction, for carts of different sizes.
+ * </p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReceiptBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int cartSize;
+
+    private Transaction transaction;
+    private ReceiptRenderer plainText;
+    private ReceiptRenderer printer;
+    private ByteBuffer printerBuffer;
+
+    @Setup
+    public void setUp() {
+        Inventory inventory = Fixtures.inventory(Math.max(1000, cartSize));
+        transaction = Fixtures.transaction(Fixtures.cart(inventory.getAllProducts(), cartSize));
+        plainText = ReceiptRenderer.plainText();
+        printer = ReceiptRenderer.fixedWidth(42);
+        printerBuffer = ByteBuffer.allocate(1 << 20);
+    }
+
+    /**
+     * Renders the receipt that is saved at checkout.
+     */
+    @Benchmark
+    public String renderReceipt() {
+        return plainText.render(transaction);
+    }
+
+    /**
+     * Renders for a receipt printer straight into its buffer.
+     */
+    @Benchmark
+    public ByteBuffer renderToPrinter() {
+        printerBuffer.clear();
+        return printer.render(transaction, printerBuffer);
+    }
+}
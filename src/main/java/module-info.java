@@ -10,6 +10,6 @@ module xyz.zuner.javafxassignment {
     requires com.google.gson;
 
     opens xyz.zuner.javafxassignment to javafx.fxml;
-    opens xyz.zuner.javafxassignment.objects to javafx.base, javafx.fxml, com.google.gson;
+    opens xyz.zuner.javafxassignment.objects to javafx.base, javafx.fxml;
     exports xyz.zuner.javafxassignment;
 }
\ No newline at end of file
@@ -1,22 +1,31 @@
 package xyz.zuner.javafxassignment;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
-import javafx.geometry.Bounds;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.stage.Modality;
-import javafx.stage.Popup;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import xyz.zuner.javafxassignment.objects.*;
+import xyz.zuner.javafxassignment.util.Money;
 import xyz.zuner.javafxassignment.util.PricingUtil;
+import xyz.zuner.javafxassignment.view.CartItemRow;
+import xyz.zuner.javafxassignment.view.ProductRowCell;
+import xyz.zuner.javafxassignment.view.SalesDashboard;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * <p>
@@ -34,11 +43,25 @@ import java.util.Objects;
  */
 public class StoreApplication extends Application {
 
+    private static final int CATALOG_COLUMNS = 3; // products per catalog row
+    private static final int SEARCH_LIMIT = 1000; // most search results to show
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
+
+    // searches run off the FX thread, one at a time
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private PauseTransition searchDebounce;
+    private Task<List<Product>> searchTask;
+
     private Inventory inventory = new Inventory();
     private Cart cart = new Cart();
     private VBox cartView, cartItemsContainer;
     private ComboBox<String> categoryComboBox;
-    private GridPane productGrid;
+    private TextField searchField, minPriceField, maxPriceField;
+    private ListView<List<Product>> productList;
     private ScrollPane cartScrollPane;
     private Label itemCountLabel, subtotalLabel, taxLabel, discountsLabel, totalLabel, totalDiscountLabel;
 
@@ -55,11 +78,26 @@ public class StoreApplication extends Application {
      */
     @Override
     public void start(Stage stage) {
-        BorderPane root = new BorderPane();
-
-        root.setTop(createHeader());
-        root.setCenter(createProductListing());
-        root.setRight(createCartView());
+        // load the discounts while the window is built, the cart picks up automatic promotions once they are in
+        DiscountFactory.loadAsync().thenRun(() -> Platform.runLater(cart::refreshPromotions));
+
+        BorderPane store = new BorderPane();
+
+        store.setTop(createHeader());
+        store.setCenter(createProductListing());
+        store.setRight(createCartView());
+
+        // the dashboard only aggregates when its tab is opened
+        SalesDashboard dashboard = new SalesDashboard(SalesAnalytics.getShared(), inventory);
+        Tab storeTab = new Tab("Store", store);
+        Tab salesTab = new Tab("Sales", dashboard);
+        salesTab.setOnSelectionChanged(event -> {
+            if (salesTab.isSelected()) {
+                dashboard.refresh();
+            }
+        });
+        TabPane root = new TabPane(storeTab, salesTab);
+        root.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
 
         Scene scene = new Scene(root, 960, 540);
         stage.setTitle("Z's Discount Electronics Store");
@@ -86,13 +124,30 @@ public class StoreApplication extends Application {
         categoryComboBox.getSelectionModel().select(0);
         categoryComboBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> updateProductGrid(newVal));
 
+        searchField = new TextField();
+        searchField.setPromptText("Search products");
+        // wait for the user to stop typing before searching
+        searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+        searchDebounce.setOnFinished(e -> updateProductGrid(categoryComboBox.getValue()));
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
+
+        Label priceLabel = new Label("Price:");
+        minPriceField = new TextField();
+        minPriceField.setPromptText("Min $");
+        minPriceField.setPrefColumnCount(5);
+        maxPriceField = new TextField();
+        maxPriceField.setPromptText("Max $");
+        maxPriceField.setPrefColumnCount(5);
+        minPriceField.textProperty().addListener((obs, oldVal, newVal) -> updateProductGrid(categoryComboBox.getValue()));
+        maxPriceField.textProperty().addListener((obs, oldVal, newVal) -> updateProductGrid(categoryComboBox.getValue()));
+
         StackPane cartIconStack = createCartIcon();
         Button cartButton = new Button();
         cartButton.setGraphic(cartIconStack);
         cartButton.setStyle("-fx-background-color: transparent;"); // Make the button transparent
         cartButton.setOnAction(e -> toggleCartVisibility()); // Use this to toggle the visibility of the cart
 
-        header.getChildren().addAll(sortLabel, categoryComboBox, cartButton);
+        header.getChildren().addAll(sortLabel, categoryComboBox, searchField, priceLabel, minPriceField, maxPriceField, cartButton);
         return header;
     }
 
@@ -112,157 +167,147 @@ public class StoreApplication extends Application {
     }
 
     /**
-     * Updates the product grid for each category.
+     * Updates the product list for each category. Only the backing row list is swapped out, the list view itself
+     * recycles its visible cells so this costs the same regardless of how many products are in the category.
      *
      * @param category the category to display.
      */
     private void updateProductGrid(String category) {
-        productGrid.getChildren().clear();
-        int row = 0, col = 0;
-        for (Product product : category == null || category.equals("All Products") ? inventory.getAllProducts() : inventory.getProductsByCategory(category)) {
-            if (col == 3) {
-                col = 0;
-                row++;
-            }
-            productGrid.add(createProductCard(product), col++, row);
+        if (searchTask != null) {
+            searchTask.cancel();
+            searchTask = null;
+        }
+        String search = searchField.getText().trim();
+        long min = parsePrice(minPriceField.getText(), 0);
+        long max = parsePrice(maxPriceField.getText(), Long.MAX_VALUE);
+
+        if (search.isEmpty()) {
+            showProducts(filterProducts(category, search, min, max));
+            return;
         }
+
+        // full-text search runs in the background, only the latest search gets to update the list
+        Task<List<Product>> task = new Task<>() {
+            @Override
+            protected List<Product> call() {
+                return filterProducts(category, search, min, max);
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (task == searchTask) {
+                showProducts(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            System.err.println("Error searching for \"" + search + "\": " + task.getException());
+            if (task == searchTask) {
+                showProducts(List.of()); // don't leave the results of an earlier search up
+            }
+        });
+        searchTask = task;
+        searchExecutor.submit(task);
     }
 
     /**
-     * Creates a listing for a product if it is added to the inventory.
+     * Replaces the products shown in the catalog.
      *
-     * @return GridPane
+     * @param products the products to show
      */
-    private ScrollPane createProductListing() {
-        productGrid = new GridPane();
-        productGrid.setHgap(10);
-        productGrid.setVgap(10);
-        productGrid.setPadding(new Insets(10));
-
-        ScrollPane scrollPane = new ScrollPane(productGrid);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        return scrollPane;
+    private void showProducts(List<Product> products) {
+        productList.setItems(FXCollections.observableList(ProductRowCell.rowsOf(products, CATALOG_COLUMNS)));
+        productList.scrollTo(0);
     }
 
     /**
-     * Creates the card to display the product in the cart.
+     * Picks the products matching the category, search and price filters. The most selective inventory index is used
+     * to find the candidates, the remaining filters are then checked on those candidates only.
+     * Does not touch any UI state, so it can run off the FX thread.
      *
-     * @param product the product to be displayed
-     * @return VBox
+     * @param category the category to display.
+     * @param search   the search text, empty for no search
+     * @param min      the lowest marked-up price to show, in cents
+     * @param max      the highest marked-up price to show, in cents
+     * @return List of matching products
      */
-    private VBox createProductCard(Product product) {
-        VBox card = new VBox(10);
-        card.setAlignment(Pos.CENTER);
-        card.setPadding(new Insets(15));
-        card.setStyle("-fx-border-color: lightgray; -fx-background-color: white;");
-
-        ImageView productImage = new ImageView(new Image(product.getImagePath()));
-        productImage.setFitHeight(100);
-        productImage.setFitWidth(100);
-        productImage.setPreserveRatio(true);
-
-        Label nameLabel = new Label(product.getName());
-        nameLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #333;");
-
-        Label categoryLabel = new Label("Category: " + product.getCategory());
-
-        double displayPrice = PricingUtil.getMarkedUpPrice(product);
-        Label priceLabel = new Label(String.format("$%.2f", displayPrice));
-        priceLabel.setStyle("-fx-font-size: 14px;");
-
-        product.getOptions().forEach((optionCategory, options) -> {
-            Label optionLabel = new Label(optionCategory + ":");
-
-            if (shouldUseSpinnerForOption(optionCategory)) {
-                Spinner<String> optionSpinner = new Spinner<>();
-                SpinnerValueFactory<String> valueFactory = new SpinnerValueFactory.ListSpinnerValueFactory<>(
-                        FXCollections.observableArrayList(options)
-                );
-                optionSpinner.setValueFactory(valueFactory);
-                optionSpinner.setEditable(true);
-
-                optionSpinner.valueProperty().addListener((obs, oldVal, newVal) -> {
-                    product.setSelectedOption(optionCategory, newVal);
-                });
-                card.getChildren().addAll(optionLabel, optionSpinner);
-            } else {
-                ChoiceBox<String> choiceBox = new ChoiceBox<>(FXCollections.observableArrayList(options));
-                choiceBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                    product.setSelectedOption(optionCategory, newVal);
-                });
-                card.getChildren().addAll(optionLabel, choiceBox);
-            }
-        });
-
-        TextField quantityField = new TextField();
-        quantityField.setPromptText("Insert quantity here");
-        Button addButton = addToCartButton(product, quantityField);
-
-        Button showDesc = createProductInfoButton(product, card);
+    private List<Product> filterProducts(String category, String search, long min, long max) {
+        boolean allCategories = category == null || category.equals("All Products");
+
+        List<Product> candidates;
+        if (!search.isEmpty()) {
+            candidates = inventory.search(search, SEARCH_LIMIT);
+        } else if (min > 0 || max < Long.MAX_VALUE) {
+            candidates = inventory.getProductsInPriceRange(min, max);
+        } else if (allCategories) {
+            return inventory.getAllProducts();
+        } else {
+            List<Product> products = inventory.getProductsByCategory(category);
+            return products == null ? List.of() : products;
+        }
 
-        card.getChildren().addAll(
-                productImage,
-                nameLabel,
-                categoryLabel,
-                priceLabel,
-                addButton,
-                quantityField,
-                showDesc
-        );
+        List<Product> filtered = new ArrayList<>();
+        for (Product product : candidates) {
+            long price = PricingUtil.getMarkedUpPrice(product);
+            if ((allCategories || product.getCategory().equals(category)) && price >= min && price <= max) {
+                filtered.add(product);
+            }
+        }
+        return filtered;
+    }
 
-        return card;
+    /**
+     * Parses a price typed into one of the filter fields.
+     *
+     * @param text     the raw text
+     * @param fallback the value to use if the field is empty or not a number
+     * @return price in cents (long)
+     */
+    private long parsePrice(String text, long fallback) {
+        try {
+            return text.isBlank() ? fallback : Money.ofDollars(Double.parseDouble(text.trim().replace("$", "")));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
     }
 
-    private boolean shouldUseSpinnerForOption(String optionCategory) {
-        return "Size".equals(optionCategory) || "Storage".equals(optionCategory);
+    /**
+     * Creates the virtualized product listing, the list view only builds as many rows as fit in the viewport.
+     *
+     * @return ListView
+     */
+    private ListView<List<Product>> createProductListing() {
+        productList = new ListView<>();
+        productList.setPadding(new Insets(10));
+        productList.setFocusTraversable(false);
+        productList.setStyle("-fx-background-color: transparent; -fx-background-insets: 0;");
+        productList.setCellFactory(view -> new ProductRowCell(CATALOG_COLUMNS, this::addToCart));
+        return productList;
     }
 
-    private Button addToCartButton(Product product, TextField quantityField) {
-        Button addButton = new Button("Add to Cart");
-        addButton.setOnAction(event -> {
-            try {
-                if (quantityField.getText().trim().isEmpty()) {
-                    // if empty, assume default quantity of 1
-                    cart.addProduct(product, 1);
+    /**
+     * Adds a product to the cart using the quantity typed into its card.
+     *
+     * @param product      the product to add
+     * @param quantityText the raw quantity text, empty means a quantity of 1
+     */
+    private void addToCart(Product product, String quantityText) {
+        try {
+            if (quantityText.trim().isEmpty()) {
+                // if empty, assume default quantity of 1
+                cart.addProduct(product, 1);
+            } else {
+                int quantity = Integer.parseInt(quantityText.trim());
+                if (quantity >= 1) {
+                    cart.addProduct(product, quantity);
                 } else {
-                    int quantity = Integer.parseInt(quantityField.getText().trim());
-                    if (quantity >= 1) {
-                        cart.addProduct(product, quantity);
-                    } else {
-                        // if the quantity is less than 1, show an error dialog
-                        throw new IllegalArgumentException("Please enter a quantity greater than zero.");
-                    }
+                    // if the quantity is less than 1, show an error dialog
+                    throw new IllegalArgumentException("Please enter a quantity greater than zero.");
                 }
-                updateCartViewAndItemCount();
-            } catch (NumberFormatException e) {
-                cart.showErrorDialog("Invalid Input", "Please enter a valid number.");
-            } catch (IllegalArgumentException e) {
-                cart.showErrorDialog("Invalid Input", e.getMessage());
             }
-        });
-        return addButton;
-    }
-
-    private Button createProductInfoButton(Product product, VBox card) {
-        Button infoButton = new Button("Show Description");
-        infoButton.setOnAction(event -> {
-            Popup popup = new Popup();
-            VBox content = new VBox(10);
-            content.setStyle("-fx-padding: 10; -fx-background-color: white; -fx-border-color: black; -fx-border-width: 2;");
-
-            Label descriptionLabel = new Label(product.getDescription() + "\nUPC: #" + product.getUPC());
-            content.getChildren().addAll(descriptionLabel);
-
-            popup.getContent().add(content);
-            popup.setAutoHide(true);
-            popup.setHideOnEscape(true);
-
-            Bounds boundsInScreen = card.localToScreen(card.getBoundsInLocal());
-            popup.show(card, boundsInScreen.getMinX(), boundsInScreen.getMaxY());
-        });
-        return infoButton;
+        } catch (NumberFormatException e) {
+            cart.showErrorDialog("Invalid Input", "Please enter a valid number.");
+        } catch (IllegalArgumentException e) {
+            cart.showErrorDialog("Invalid Input", e.getMessage());
+        }
     }
 
     /**
@@ -302,7 +347,6 @@ public class StoreApplication extends Application {
         Button clearCartButton = new Button("Clear Cart");
         clearCartButton.setOnAction(event -> {
             cart.clearCart();
-            updateCartViewAndItemCount();
         });
 
         proceedToCheckoutButton = new Button("Proceed to Checkout");
@@ -313,6 +357,7 @@ public class StoreApplication extends Application {
         printReceiptButton.setVisible(false);
 
         updateButtonStates();
+        cart.addListener(new CartPanelUpdater());
 
         cartView.getChildren().addAll(
                 cartLabel,
@@ -345,7 +390,7 @@ public class StoreApplication extends Application {
      * Updates the state of checkout and print receipt buttons based on the cart's content.
      */
     private void updateButtonStates() {
-        boolean isCartEmpty = cart.getItems().isEmpty();
+        boolean isCartEmpty = cart.isEmpty();
 
         proceedToCheckoutButton.setDisable(isCartEmpty);
         printReceiptButton.setDisable(isCartEmpty);
@@ -361,17 +406,28 @@ public class StoreApplication extends Application {
      * @param code the Discount code (String)
      */
     private void applyDiscountCode(String code) {
-        // todo: add err msg handling for invalid or null codes
         // todo: fix 'BOGO' and 'FLAT100' codes for some reason
-        cart.applyDiscountCode(code);
-        updateCartViewAndItemCount();
+        try {
+            cart.applyDiscountCode(code);
+        } catch (IllegalArgumentException e) {
+            cart.showErrorDialog("Invalid or Expired Promo Code", e.getMessage());
+        }
     }
 
     /**
      * Handles creating and accessing a new Transaction object to generate a receipt.
      */
     private void printReceipt() {
-        Transaction transaction = new Transaction(cart.getAppliedDiscountCodes(), cart.getItems(), cart.getSubtotalCost(), cart.getTotalTax(), cart.getTotalDiscountAmount(), cart.getTotalCostAfterDiscounts());
+        boolean saved;
+        try {
+            saved = cart.checkout();
+        } catch (IllegalStateException e) {
+            cart.showErrorDialog("Checkout Failed", e.getMessage());
+            return;
+        }
+
+        CartTotals totals = cart.getTotals();
+        Transaction transaction = new Transaction(cart.getAppliedDiscountCodes(), cart.getItems(), totals.getSubtotal(), totals.getTax(), totals.getDiscount(), totals.getTotal(), cart.getPromotions());
         String receipt = transaction.processTransaction();
 
         Stage receiptStage = new Stage();
@@ -388,12 +444,15 @@ public class StoreApplication extends Application {
         Scene scene = new Scene(layout, 300, 600);
         receiptStage.setScene(scene);
         receiptStage.showAndWait();
+        if (!saved) {
+            cart.showErrorDialog("Sale Not Saved Yet", "The sale went through, but the stock journal could not be written"
+                    + " to the disk. It will be retried; if the store is restarted before then, the sale's stock changes may be lost.");
+        }
 
         // clear cart after receipt "prints"
         cart.clearCart();
         // remove discounts as well
         cart.clearDiscounts();
-        updateCartViewAndItemCount();
     }
 
     /**
@@ -402,73 +461,47 @@ public class StoreApplication extends Application {
     private void toggleCartVisibility() {
         boolean isVisible = cartView.isVisible();
         cartView.setVisible(!isVisible);
-        updateCartView();
     }
 
     /**
-     * Updates the view.
+     * Keeps the cart panel in step with the cart. Each event patches only the row or labels it affects.
      */
-    private void updateCartViewAndItemCount() {
-        updateCartView();
-        updateButtonStates();
-        itemCountLabel.setText(String.valueOf(cart.getItemCount()));
-    }
+    private class CartPanelUpdater implements CartListener {
 
-    /**
-     * Updates cart view.
-     */
-    private void updateCartView() {
-        cartItemsContainer.getChildren().clear();
-        for (CartItem item : cart.getItems()) {
-            cartItemsContainer.getChildren().add(createCartItemView(item));
-        }
+        private final Map<CartItem, CartItemRow> rows = new IdentityHashMap<>();
 
-        subtotalLabel.setText("Subtotal: " + String.format("$%.2f", cart.getSubtotalCost()));
-        taxLabel.setText("Tax: " + String.format("$%.2f", cart.getTotalTax()));
-        discountsLabel.setText("Discounts Applied: \n" + cart.getAppliedDiscountCodes());
-        totalDiscountLabel.setText(String.format("Total Discount: $%.2f", cart.getTotalDiscountAmount()));
-        totalLabel.setText("Total: " + String.format("$%.2f", cart.getTotalCostAfterDiscounts()));
-    }
+        @Override
+        public void lineAdded(CartItem item) {
+            CartItemRow row = new CartItemRow(cart, item);
+            rows.put(item, row);
+            cartItemsContainer.getChildren().add(row);
+        }
 
-    /**
-     * Handles logic for creating the item box in the cart view.
-     *
-     * @param cartItem the CartItem to display
-     * @return HBox
-     */
-    private HBox createCartItemView(CartItem cartItem) {
-        HBox itemBox = new HBox(10);
-        itemBox.setAlignment(Pos.CENTER_LEFT);
-
-        ImageView productImage = new ImageView(new Image(cartItem.getProduct().getImagePath()));
-        productImage.setFitWidth(50);
-        productImage.setFitHeight(50);
-
-        Label nameLabel = new Label(cartItem.getProduct().getName());
-        Label optionsLabel = new Label(cartItem.getSelectedOptions());
-        optionsLabel.setStyle("-fx-font-size: 8px;");
-        double finalCost = PricingUtil.getMarkedUpPrice(cartItem.getProduct()) * cartItem.getQuantity();
-        Label priceLabel = new Label(String.format("$%.2f", finalCost));
-
-        Spinner<Integer> quantitySpinner = new Spinner<>(1, 100, cartItem.getQuantity());
-        quantitySpinner.valueProperty().addListener((obs, oldValue, newValue) -> {
-            if (oldValue > newValue) {
-                cartItem.remove();
-                updateCartViewAndItemCount();
-            } else if (newValue > oldValue) {
-                cart.addProduct(cartItem.getProduct(), 1);
-                updateCartViewAndItemCount();
+        @Override
+        public void lineChanged(CartItem item) {
+            CartItemRow row = rows.get(item);
+            if (row != null) {
+                row.update();
             }
-        });
+        }
 
-        Button removeItem = new Button("X");
-        removeItem.setStyle("-fx-background-color: #ffff; -fx-text-fill: #ff0000");
-        removeItem.setOnAction(event -> {
-            cart.removeProduct(cartItem.getProduct());
-            updateCartViewAndItemCount();
-        });
+        @Override
+        public void lineRemoved(CartItem item) {
+            CartItemRow row = rows.remove(item);
+            if (row != null) {
+                cartItemsContainer.getChildren().remove(row);
+            }
+        }
 
-        itemBox.getChildren().addAll(productImage, nameLabel, optionsLabel, quantitySpinner, priceLabel, removeItem);
-        return itemBox;
+        @Override
+        public void totalsChanged(CartTotals totals) {
+            subtotalLabel.setText("Subtotal: " + Money.format(totals.getSubtotal()));
+            taxLabel.setText("Tax: " + Money.format(totals.getTax()));
+            discountsLabel.setText("Discounts Applied: \n" + cart.getAppliedDiscountCodes());
+            totalDiscountLabel.setText("Total Discount: " + Money.format(totals.getDiscount()));
+            totalLabel.setText("Total: " + Money.format(totals.getTotal()));
+            itemCountLabel.setText(String.valueOf(totals.getItemCount()));
+            updateButtonStates();
+        }
     }
 }
@@ -4,10 +4,16 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.DialogPane;
 import xyz.zuner.javafxassignment.util.PricingUtil;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
@@ -26,38 +32,136 @@ import java.util.Map;
  */
 public class Cart {
 
-    private final List<CartItem> items = new ArrayList<>();
-    private Discount cartDiscount; // cart-wide discounts
-    private double cartWideDiscountAmount = 0.0; // stores cart-wide discount amount
+    private final Map<Long, CartItem> lines = new LinkedHashMap<>(); // cart lines by line key, in the order added
+    private final Collection<CartItem> items = lines.values();
     private Map<String, Discount> appliedDiscounts = new HashMap<>(); // track applied discounts
+    private final ReservationManager reservations;
+    private final PromotionResolver resolver;
+    private final RedemptionLedger ledger;
+    private String customerId; // null for an anonymous customer
+    private DiscountRuleSet activeRules; // applied codes and automatic promotions
+    private PromotionResolver.Plan cartPlan = PromotionResolver.Plan.NONE; // cart-wide promotions, set with the totals
+    private boolean itemDiscountsUsed = true; // false if the stacking rules dropped the item discounts for cart-wide ones
+
+    // running totals over every line, updated by each line as it changes
+    private int itemCount;
+    private long subtotal; // in cents
+    private long discountedTotal; // sum of the line prices after item discounts, in cents
+    private CartTotals totals = CartTotals.EMPTY; // null when the running totals changed since the last snapshot
+    private final List<CartListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an empty cart that reserves stock through the shared reservation manager.
+     */
+    public Cart() {
+        this(ReservationManager.getShared());
+    }
+
+    /**
+     * Creates an empty cart.
+     *
+     * @param reservations the reservation manager used to hold stock for this cart
+     */
+    public Cart(ReservationManager reservations) {
+        this(reservations, PromotionResolver.getShared());
+    }
+
+    /**
+     * Creates an empty cart.
+     *
+     * @param reservations the reservation manager used to hold stock for this cart
+     * @param resolver     picks the promotions for the cart under the store's stacking rules
+     */
+    public Cart(ReservationManager reservations, PromotionResolver resolver) {
+        this(reservations, resolver, RedemptionLedger.getShared());
+    }
+
+    /**
+     * Creates an empty cart.
+     *
+     * @param reservations the reservation manager used to hold stock for this cart
+     * @param resolver     picks the promotions for the cart under the store's stacking rules
+     * @param ledger       counts discount redemptions and enforces their limits
+     */
+    public Cart(ReservationManager reservations, PromotionResolver resolver, RedemptionLedger ledger) {
+        this.reservations = reservations;
+        this.resolver = resolver;
+        this.ledger = ledger;
+        this.activeRules = DiscountRuleSet.of(availableAutomaticDiscounts());
+    }
+
+    /**
+     * Gets the customer this cart belongs to.
+     *
+     * @return customer id (String), null if the customer is anonymous
+     */
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Sets the customer this cart belongs to, used to enforce per-customer promotion limits. Anonymous carts are
+     * only held to the overall limits.
+     *
+     * @param customerId the customer id, null if the customer is anonymous
+     */
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
 
     /**
      * Adds a product to the cart. If the product already exists, its quantity is increased.
-     * Checks inventory to ensure there are enough products available before adding.
+     * The units are held for the cart with a time-limited reservation, so concurrent carts can never take more than
+     * what is in stock and abandoned carts give their stock back.
      *
      * @param product  the product to add
      * @param quantity the quantity of the product to add
+     * @throws IllegalArgumentException if there is not enough stock, the cart is left unchanged
+     * @see ReservationManager
      */
     public void addProduct(Product product, int quantity) {
-        if (!product.isAvailable(quantity)) {
-            throw new IllegalArgumentException("Insufficient stock for " + product.getName());
-        }
-
         CartItem existingItem = findItemByProductAndOptions(product);
 
         if (existingItem != null) {
-            int combinedQuantity = existingItem.getQuantity() + quantity;
-            if (!product.isAvailable(combinedQuantity)) {
-                String errorMsg = "Adding quantity exceeds stock for " + product.getName();
-                showErrorDialog("Error Adding Product", errorMsg);
-                return;
+            if (!existingItem.getHold().extend(quantity)) {
+                throw new IllegalArgumentException("Adding quantity exceeds stock for " + product.getName());
             }
-            // if enough stock, increase the quantity
             existingItem.add(quantity);
-            product.reduceStock(quantity);
-        } else {
-            items.add(new CartItem(product, quantity));
-            product.reduceStock(quantity);
+            return;
+        }
+
+        StockHold hold = reservations.hold(product, quantity);
+        if (hold == null) {
+            throw new IllegalArgumentException("Insufficient stock for " + product.getName());
+        }
+        CartItem item = new CartItem(product, quantity);
+        item.setHold(hold);
+        lines.put(item.getKey(), item);
+        attach(item);
+    }
+
+    /**
+     * Adds a single unit to an existing line, keeping the options it was added with.
+     *
+     * @param item the cart line to increase
+     * @throws IllegalArgumentException if there is not enough stock, the line is left unchanged
+     */
+    public void incrementItem(CartItem item) {
+        if (!item.getHold().extend(1)) {
+            throw new IllegalArgumentException("Adding quantity exceeds stock for " + item.getProduct().getName());
+        }
+        item.add();
+    }
+
+    /**
+     * Removes a single unit of a line, giving it back to the store.
+     *
+     * @param item the cart line to decrease
+     */
+    public void decrementItem(CartItem item) {
+        if (item.getQuantity() > 0) {
+            item.getHold().shrink(1);
+            item.remove();
         }
     }
 
@@ -67,23 +171,126 @@ public class Cart {
      *
      * @param product the product to find in the cart items.
      * @return CartItem, or null if no match is found.
+     * @see Product#getLineKey()
      */
     private CartItem findItemByProductAndOptions(Product product) {
-        for (CartItem item : items) {
-            if (item.getProduct().equals(product) && item.getSelectedOptions().equals(product.getSelectedOptionsAsString())) {
-                return item;
-            }
+        return lines.get(product.getLineKey());
+    }
+
+    /**
+     * Removes a single line from the cart, releasing the stock it holds.
+     *
+     * @param item the cart line to remove
+     */
+    public void removeItem(CartItem item) {
+        if (lines.remove(item.getKey(), item)) {
+            item.getHold().release();
+            detach(item);
         }
-        return null;
     }
 
     /**
-     * Removes a product from the cart.
+     * Removes a product from the cart, including every option combination of it.
      *
      * @param product the product to remove
      */
     public void removeProduct(Product product) {
-        items.removeIf(item -> item.getProduct().equals(product));
+        Iterator<CartItem> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            CartItem item = iterator.next();
+            if (item.getProduct().getOrdinal() == product.getOrdinal()) {
+                item.getHold().release();
+                iterator.remove();
+                detach(item);
+            }
+        }
+    }
+
+    /**
+     * Starts tracking a line that was just added in the running totals.
+     */
+    private void attach(CartItem item) {
+        item.setCart(this);
+        resolveLine(item);
+        updateTotals(item.getQuantity(), item.getSubtotal(), item.getDiscountedPrice());
+        for (CartListener listener : listeners) {
+            listener.lineAdded(item);
+        }
+        fireTotalsChanged();
+    }
+
+    /**
+     * Takes a line that was just removed out of the running totals.
+     */
+    private void detach(CartItem item) {
+        item.setCart(null);
+        updateTotals(-item.getQuantity(), -item.getSubtotal(), -item.getDiscountedPrice());
+        item.setPromotion(PromotionResolver.Plan.NONE);
+        for (CartListener listener : listeners) {
+            listener.lineRemoved(item);
+        }
+        fireTotalsChanged();
+    }
+
+    /**
+     * Called by a line of this cart whenever its quantity changes. The line's discounts are picked again for its new
+     * quantity before the difference goes into the running totals.
+     *
+     * @param item               the line that changed
+     * @param oldQuantity        the quantity before the change
+     * @param oldSubtotal        the price before discounts before the change
+     * @param oldDiscountedPrice the price after item discounts before the change
+     */
+    void lineChanged(CartItem item, int oldQuantity, long oldSubtotal, long oldDiscountedPrice) {
+        resolveLine(item);
+        updateTotals(item.getQuantity() - oldQuantity, item.getSubtotal() - oldSubtotal, item.getDiscountedPrice() - oldDiscountedPrice);
+        for (CartListener listener : listeners) {
+            listener.lineChanged(item);
+        }
+        fireTotalsChanged();
+    }
+
+    private void updateTotals(int quantityChange, long subtotalChange, long discountedPriceChange) {
+        itemCount += quantityChange;
+        subtotal += subtotalChange;
+        discountedTotal += discountedPriceChange;
+        totals = null;
+    }
+
+    private void fireTotalsChanged() {
+        if (!listeners.isEmpty()) {
+            CartTotals snapshot = getTotals();
+            for (CartListener listener : listeners) {
+                listener.totalsChanged(snapshot);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener to be told about every change to this cart.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(CartListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops telling a listener about changes to this cart.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(CartListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Checks whether the cart has no lines.
+     *
+     * @return boolean
+     */
+    public boolean isEmpty() {
+        return lines.isEmpty();
     }
 
     /**
@@ -99,44 +306,63 @@ public class Cart {
      * Applies a discount via its code.
      *
      * @param code String representation of the discount code
+     * @throws IllegalArgumentException if the code does not exist, is outside its validity period or used up
      */
     public void applyDiscountCode(String code) {
-        if (validatePromoCode(code)) {
-            Discount discount = lookupDiscountByCode(code);
-            if (discount.isItemSpecific()) {
-                items.forEach(item -> {
-                    if (discount.getApplicableProductUPCs().contains(item.getProduct().getUPC())) {
-                        item.applyDiscount(discount);
-                    }
-                });
-            } else {
-                this.cartDiscount = discount;
-                applyCartDiscount();
-            }
-            appliedDiscounts.put(code, discount);
-        }
+        DiscountFactory.awaitReady(); // only blocks if the discounts are still being loaded
+        Discount discount = lookupDiscountByCode(code); // looked up once, a reload may swap the catalog at any time
+        validatePromoCode(code, discount);
+        appliedDiscounts.put(code, discount);
+        updateActiveRules();
     }
 
     /**
-     * Stores the discount amount for later.
+     * Clears the applied discounts. Automatic promotions stay active.
      */
-    public void applyCartDiscount() {
-        if (this.cartDiscount != null) {
-            cartWideDiscountAmount += cartDiscount.getAmount();
-            // this won't work for %off cart-wide discounts in the future but shouldn't be a problem because the math should work out per item anyway
-        }
+    public void clearDiscounts() {
+        this.appliedDiscounts.clear();
+        updateActiveRules();
     }
 
     /**
-     * Clears the applied discounts.
+     * Re-prices the cart against the current automatic promotions, e.g. once the discounts have finished loading.
+     * Codes already applied keep the terms they had when they were entered.
      */
-    public void clearDiscounts() {
-        this.appliedDiscounts.clear();
-        this.cartDiscount = null;
-        this.cartWideDiscountAmount = 0.0;
+    public void refreshPromotions() {
+        updateActiveRules();
+    }
+
+    /**
+     * Recompiles the promotions that can apply to this cart, the applied codes plus the automatic promotions, and
+     * re-prices every line against them.
+     */
+    private void updateActiveRules() {
+        List<Discount> active = availableAutomaticDiscounts();
+        active.addAll(appliedDiscounts.values());
+        activeRules = DiscountRuleSet.of(active);
+
         for (CartItem item : items) {
-            item.removeDiscount();
+            long oldDiscountedPrice = item.getDiscountedPrice();
+            resolveLine(item);
+            if (item.getDiscountedPrice() != oldDiscountedPrice) {
+                updateTotals(0, 0, item.getDiscountedPrice() - oldDiscountedPrice);
+                for (CartListener listener : listeners) {
+                    listener.lineChanged(item);
+                }
+            }
         }
+        totals = null;
+        fireTotalsChanged();
+    }
+
+    /**
+     * Picks the best item discounts for a line at its current quantity.
+     */
+    private void resolveLine(CartItem item) {
+        DiscountRule[] candidates = activeRules.rulesFor(item.getProduct().getOrdinal());
+        item.setPromotion(candidates.length == 0
+                ? PromotionResolver.Plan.NONE
+                : resolver.resolveLine(candidates, item.getSubtotal(), item.getQuantity()));
     }
 
     private Discount lookupDiscountByCode(String code) {
@@ -146,17 +372,32 @@ public class Cart {
     /**
      * Validates the discount code entered.
      *
-     * @param code the code entered by the user.
-     * @return true if the promo code is valid, false if it is invalid or expired.
+     * @param code     the code entered by the user.
+     * @param discount the discount found for the code, null if there is none.
+     * @throws IllegalArgumentException if the promo code is invalid, expired or used up.
      */
-    private boolean validatePromoCode(String code) {
-        Map<String, Discount> availableDiscounts = DiscountFactory.getDiscountMap();
+    private void validatePromoCode(String code, Discount discount) {
+        if (discount == null) {
+            throw new IllegalArgumentException("The code you entered is either invalid or has expired.");
+        }
+        RedemptionLedger.Status status = ledger.check(discount, customerId, Instant.now());
+        if (status != RedemptionLedger.Status.AVAILABLE) {
+            throw new IllegalArgumentException("The code " + code + " " + status.getDescription() + ".");
+        }
+    }
 
-        if (!availableDiscounts.containsKey(code)) {
-            showErrorDialog("Invalid or Expired Promo Code", "The code you entered is either invalid or has expired.");
-            return false;
+    /**
+     * Gets the automatic promotions that can be used right now.
+     */
+    private List<Discount> availableAutomaticDiscounts() {
+        List<Discount> available = new ArrayList<>();
+        Instant now = Instant.now();
+        for (Discount discount : DiscountFactory.getAutomaticDiscounts()) {
+            if (ledger.check(discount, customerId, now) == RedemptionLedger.Status.AVAILABLE) {
+                available.add(discount);
+            }
         }
-        return true;
+        return available;
     }
 
     /**
@@ -177,68 +418,101 @@ public class Cart {
         alert.showAndWait();
     }
 
+    /**
+     * Gets a snapshot of the cart totals. The snapshot is built from running totals that every line keeps up to date,
+     * so it does not depend on the number of lines, and is reused until the cart changes. Only the cart-wide
+     * promotions are resolved again, against the new total.
+     *
+     * @return CartTotals
+     */
+    public CartTotals getTotals() {
+        CartTotals snapshot = totals;
+        if (snapshot == null) {
+            long tax = PricingUtil.calculateSalesTax(subtotal);
+            long itemAmountOff = subtotal - discountedTotal;
+            PromotionResolver.Plan plan = resolver.resolveCart(activeRules.cartRules(), discountedTotal + tax);
+            itemDiscountsUsed = true;
+            if (!resolver.getRules().isCombineItemAndCart() && itemAmountOff > 0 && !plan.isEmpty()) {
+                // one or the other: keep whichever saves more
+                PromotionResolver.Plan cartOnly = resolver.resolveCart(activeRules.cartRules(), subtotal + tax);
+                if (cartOnly.getAmountOff() > itemAmountOff) {
+                    plan = cartOnly;
+                    itemDiscountsUsed = false;
+                    itemAmountOff = 0;
+                } else {
+                    plan = PromotionResolver.Plan.NONE;
+                }
+            }
+            cartPlan = plan;
+
+            long discount = itemAmountOff + plan.getAmountOff();
+            snapshot = new CartTotals(lines.size(), itemCount, subtotal, tax, subtotal + tax, discount, subtotal + tax - discount);
+            totals = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the promotions applied to the cart, attributed to the lines they apply to.
+     *
+     * @return PromotionResult
+     */
+    public PromotionResult getPromotions() {
+        getTotals(); // make sure the cart-wide plan is current
+        Map<CartItem, PromotionResolver.Plan> attribution = new IdentityHashMap<>();
+        if (itemDiscountsUsed) {
+            for (CartItem item : items) {
+                if (!item.getPromotion().isEmpty()) {
+                    attribution.put(item, item.getPromotion());
+                }
+            }
+        }
+        return new PromotionResult(attribution, cartPlan);
+    }
+
     /**
      * Calculates the total cost of the items in the cart before tax.
      *
-     * @return the subtotal cost.
+     * @return the subtotal cost, in cents.
      */
-    public double getSubtotalCost() {
-        return items.stream()
-                .mapToDouble(item -> item.getQuantity() * PricingUtil.getMarkedUpPrice(item.getProduct()))
-                .sum();
+    public long getSubtotalCost() {
+        return getTotals().getSubtotal();
     }
 
     /**
      * Calculates the total sales tax for the items in the cart.
      *
-     * @return the total tax amount.
+     * @return the total tax amount, in cents.
      */
-    public double getTotalTax() {
-        return PricingUtil.calculateSalesTax(getSubtotalCost());
+    public long getTotalTax() {
+        return getTotals().getTax();
     }
 
     /**
      * Calculates the total cost of the items in the cart including tax but before discounts.
      *
-     * @return the total cost including tax.
+     * @return the total cost including tax, in cents.
      */
-    public double getTotalCostBeforeDiscounts() {
-        return getSubtotalCost() + getTotalTax();
+    public long getTotalCostBeforeDiscounts() {
+        return getTotals().getTotalBeforeDiscounts();
     }
 
     /**
      * Calculates the amount being discounted from the total.
      *
-     * @return the total discount amount.
+     * @return the total discount amount, in cents.
      */
-    public double getTotalDiscountAmount() {
-        return items.stream()
-                .mapToDouble(item -> (PricingUtil.getMarkedUpPrice(item.getProduct()) * item.getQuantity()) - item.getDiscountedPrice())
-                .sum() + cartWideDiscountAmount;
+    public long getTotalDiscountAmount() {
+        return getTotals().getDiscount();
     }
 
     /**
      * Calculates the final total cost after all discounts are applied.
      *
-     * @return the final total cost.
-     */
-    /**
-     * Calculates the final total cost after all discounts are applied.
-     *
-     * @return the final total cost.
+     * @return the final total cost, in cents.
      */
-    public double getTotalCostAfterDiscounts() {
-        double itemsTotal = items.stream()
-                .mapToDouble(CartItem::getDiscountedPrice)
-                .sum();
-
-        double totalCostAfterItemDiscounts = itemsTotal + getTotalTax();
-
-        if (cartDiscount != null) {
-            totalCostAfterItemDiscounts = cartDiscount.applyTo(totalCostAfterItemDiscounts, 1);
-        }
-
-        return totalCostAfterItemDiscounts;
+    public long getTotalCostAfterDiscounts() {
+        return getTotals().getTotal();
     }
 
     /**
@@ -260,14 +534,110 @@ public class Cart {
      * @return the total item count.
      */
     public int getItemCount() {
-        return items.stream().mapToInt(CartItem::getQuantity).sum();
+        return itemCount;
     }
 
     /**
-     * Clears all items from the cart.
+     * Clears all items from the cart, releasing any stock they still hold.
      */
     public void clearCart() {
-        items.clear();
+        List<CartItem> removed = new ArrayList<>(items);
+        for (CartItem item : removed) {
+            item.getHold().release();
+            item.setCart(null);
+            item.setPromotion(PromotionResolver.Plan.NONE);
+        }
+        lines.clear();
+        itemCount = 0;
+        subtotal = 0;
+        discountedTotal = 0;
+        totals = null;
+        for (CartItem item : removed) {
+            for (CartListener listener : listeners) {
+                listener.lineRemoved(item);
+            }
+        }
+        fireTotalsChanged();
+    }
+
+    /**
+     * Commits the stock held by every line as sold and redeems the promotions used. Lines whose reservation expired
+     * are re-reserved first; if any of them can no longer be filled nothing is committed. If a promotion ended or
+     * ran out in the meantime it is taken off the cart and nothing is committed either, so the customer can review
+     * the new total. The holds are committed all together or not at all; if one cannot be committed the promotions
+     * are refunded. The sale is recorded in the {@link StockJournal} when the inventory has one.
+     *
+     * @return true if the sale is saved, false if it went through but the stock journal could not write it to the
+     * disk in time; the sale still stands and is written when the disk recovers
+     * @throws IllegalStateException if an expired line can no longer be filled, a hold cannot be committed, or a
+     *                               promotion can no longer be used; nothing is committed
+     */
+    public boolean checkout() {
+        for (CartItem item : items) {
+            if (!item.getHold().renew()) {
+                throw new IllegalStateException("Your reservation for " + item.getProduct().getName()
+                        + " expired and there is no longer enough stock.");
+            }
+        }
+
+        Instant now = Instant.now();
+        Collection<Discount> used = getPromotions().getDiscountsUsed();
+        List<StockHold> holds = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            holds.add(item.getHold());
+        }
+        Runnable sale = () -> commitSale(holds, used, now);
+        boolean saved = true;
+        StockJournal journal = StockJournal.getShared();
+        try {
+            if (journal != null) {
+                saved = journal.recordCheckout(holds, sale);
+            } else {
+                sale.run();
+            }
+        } catch (PromotionUnavailable e) {
+            Discount unavailable = e.discount;
+            RedemptionLedger.Status status = ledger.check(unavailable, customerId, now);
+            appliedDiscounts.remove(unavailable.getCode());
+            updateActiveRules();
+            throw new IllegalStateException("The code " + unavailable.getCode() + " "
+                    + (status == RedemptionLedger.Status.AVAILABLE ? "is no longer available" : status.getDescription())
+                    + ". Your total has been updated.");
+        }
+        return saved;
+    }
+
+    /**
+     * Redeems the promotions and commits every hold, or does neither. If a promotion can no longer be used nothing
+     * is committed. If a hold cannot be committed, for example because it expired since it was renewed, the holds
+     * already committed are held again and the promotions are refunded. Runs as the journal's apply step, so a
+     * checkout that fails here is not journaled.
+     *
+     * @param holds the holds of the lines checked out
+     * @param used  the promotions the checkout uses
+     * @param now   the time of the checkout
+     * @throws PromotionUnavailable if a promotion can no longer be used
+     */
+    private void commitSale(List<StockHold> holds, Collection<Discount> used, Instant now) {
+        Discount unavailable = ledger.tryRedeemAll(used, customerId, now);
+        if (unavailable != null) {
+            throw new PromotionUnavailable(unavailable);
+        }
+        int committed = 0;
+        try {
+            for (StockHold hold : holds) {
+                hold.commit();
+                committed++;
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < committed; i++) {
+                holds.get(i).uncommit();
+            }
+            for (Discount discount : used) {
+                ledger.refund(discount, customerId);
+            }
+            throw e;
+        }
     }
 
     /**
@@ -281,11 +651,26 @@ public class Cart {
         for (CartItem item : items) {
             builder.append(item.getProduct().getName())
                     .append(" - ")
-                    .append(item.getProduct().getSelectedOptionsAsString())
+                    .append(item.getSelectedOptions())
                     .append(": ")
                     .append(item.getQuantity())
                     .append("\n");
         }
         return builder.toString();
     }
+
+    /**
+     * Thrown out of the journal's apply step when a promotion can no longer be used, so nothing is journaled.
+     */
+    private static final class PromotionUnavailable extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Discount discount;
+
+        PromotionUnavailable(Discount discount) {
+            super(discount.getCode(), null, false, false);
+            this.discount = discount;
+        }
+    }
 }
@@ -2,6 +2,8 @@ package xyz.zuner.javafxassignment.objects;
 
 import xyz.zuner.javafxassignment.util.PricingUtil;
 
+import java.util.List;
+
 /**
  * <p>
  * Represents an item in the shopping cart
@@ -20,10 +22,12 @@ import xyz.zuner.javafxassignment.util.PricingUtil;
 public class CartItem {
 
     private Product product;
+    private final long key; // product and option selection, see Product#getLineKey()
     private int quantity;
-    private Discount discount;
-    private double discountedPrice;
+    private PromotionResolver.Plan promotion = PromotionResolver.Plan.NONE; // item discounts chosen by the cart
     private String selectedOptions;
+    private StockHold hold; // stock reserved for this line
+    private Cart cart; // the cart holding this line, told about every change to keep its totals current
 
     /**
      * Constructs a new CartItem with the given product and quantity.
@@ -35,6 +39,7 @@ public class CartItem {
         this.product = product;
         this.quantity = quantity;
         this.selectedOptions = product.getSelectedOptionsAsString();
+        this.key = product.getLineKey();
     }
 
     /**
@@ -46,6 +51,16 @@ public class CartItem {
         return product;
     }
 
+    /**
+     * Gets the key the cart files this line under.
+     *
+     * @return line key (long)
+     * @see Product#getLineKey()
+     */
+    public long getKey() {
+        return key;
+    }
+
     /**
      * Represents the quantity in the cart for this item
      *
@@ -61,14 +76,18 @@ public class CartItem {
      * @param quantity the new quantity.
      */
     public void setQuantity(int quantity) {
+        int oldQuantity = this.quantity;
+        long oldSubtotal = getSubtotal();
+        long oldDiscountedPrice = getDiscountedPrice();
         this.quantity = Math.max(0, quantity);
+        changed(oldQuantity, oldSubtotal, oldDiscountedPrice);
     }
 
     /**
      * Increases the quantity by one.
      */
     public void add() {
-        this.quantity++;
+        setQuantity(quantity + 1);
     }
 
     /**
@@ -77,7 +96,7 @@ public class CartItem {
      * @param amount The amount to increase the quantity by.
      */
     public void add(int amount) {
-        this.quantity += amount;
+        setQuantity(quantity + amount);
     }
 
     /**
@@ -85,38 +104,92 @@ public class CartItem {
      */
     public void remove() {
         if (this.quantity > 0) {
-            this.quantity--;
+            setQuantity(quantity - 1);
         }
     }
 
     /**
-     * Apply discounted price to the item.
+     * Gets the marked up price of this line before any discount.
      *
-     * @param discount the discount to be applied.
+     * @return price of one unit times the quantity, in cents
      */
-    public void applyDiscount(Discount discount) {
-        this.discount = discount;
-        if (discount != null) {
-            this.discountedPrice = discount.applyTo(PricingUtil.getMarkedUpPrice(product) * quantity, quantity);
-        }
+    public long getSubtotal() {
+        return PricingUtil.getSubtotal(product, quantity);
     }
 
     /**
      * Gets the newly calculated price after applying discounts. If no discount, price is the regular marked up price.
      *
-     * @return Discounted price, else regular price.
+     * @return Discounted price, else regular price, in cents.
+     */
+    public long getDiscountedPrice() {
+        return getSubtotal() - promotion.getAmountOff();
+    }
+
+    /**
+     * Gets the item discounts the cart chose for this line.
+     *
+     * @return the plan, {@link PromotionResolver.Plan#NONE} if no discount applies
+     */
+    public PromotionResolver.Plan getPromotion() {
+        return promotion;
+    }
+
+    /**
+     * Gets the item discounts applied to this line, in the order they are applied.
+     *
+     * @return unmodifiable List of Discount
+     */
+    public List<Discount> getDiscounts() {
+        return promotion.getDiscounts();
+    }
+
+    /**
+     * Sets the item discounts for this line, called by the owning cart whenever the line changes.
+     *
+     * @param promotion the plan chosen for the current quantity
+     */
+    void setPromotion(PromotionResolver.Plan promotion) {
+        this.promotion = promotion;
+    }
+
+    /**
+     * Attaches this line to the cart that keeps running totals over it.
+     *
+     * @param cart the owning cart, or null once the line is removed
      */
-    public double getDiscountedPrice() {
-        // return the total price if no discount is applied
-        return (discount == null) ? PricingUtil.getMarkedUpPrice(product) * quantity : discountedPrice;
+    void setCart(Cart cart) {
+        this.cart = cart;
     }
 
     /**
-     * Removes the discount and reverts items to original cost.
+     * Lets the owning cart re-price the line after a change and update its totals.
+     */
+    private void changed(int oldQuantity, long oldSubtotal, long oldDiscountedPrice) {
+        if (cart != null) {
+            cart.lineChanged(this, oldQuantity, oldSubtotal, oldDiscountedPrice);
+        } else {
+            // discounts are chosen by the cart, a line outside one has none
+            promotion = PromotionResolver.Plan.NONE;
+        }
+    }
+
+    /**
+     * Gets the stock reservation backing this line.
+     *
+     * @return StockHold, or null if the line was created without one
+     */
+    public StockHold getHold() {
+        return hold;
+    }
+
+    /**
+     * Sets the stock reservation backing this line.
+     *
+     * @param hold the reservation
      */
-    public void removeDiscount() {
-        this.discount = null;
-        this.discountedPrice = PricingUtil.getMarkedUpPrice(product) * quantity;
+    void setHold(StockHold hold) {
+        this.hold = hold;
     }
 
     /**
@@ -0,0 +1,55 @@
+package xyz.zuner.javafxassignment.objects;
+
+/**
+ * <p>
+ * Receives fine-grained change events from a {@link Cart}, so a view can patch the one line that changed instead of
+ * redrawing the whole cart.
+ * </p>
+ * <br>
+ * <p>Events are delivered on the thread that changed the cart, right after the change. A change to a line is always
+ * followed by {@link #totalsChanged(CartTotals)}. Every method does nothing by default.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Cart#addListener(CartListener)
+ */
+public interface CartListener {
+
+    /**
+     * Called when a new line is added to the cart.
+     *
+     * @param item the new line
+     */
+    default void lineAdded(CartItem item) {
+    }
+
+    /**
+     * Called when the quantity or price of a line changes.
+     *
+     * @param item the changed line
+     */
+    default void lineChanged(CartItem item) {
+    }
+
+    /**
+     * Called when a line is removed from the cart.
+     *
+     * @param item the removed line
+     */
+    default void lineRemoved(CartItem item) {
+    }
+
+    /**
+     * Called when the cart totals or the applied discount codes change.
+     *
+     * @param totals the new totals
+     */
+    default void totalsChanged(CartTotals totals) {
+    }
+}
@@ -0,0 +1,117 @@
+package xyz.zuner.javafxassignment.objects;
+
+import xyz.zuner.javafxassignment.util.Money;
+
+/**
+ * <p>
+ * Immutable snapshot of the totals of a {@link Cart}, taken from the running totals the cart keeps up to date as lines
+ * change. Reading it costs the same no matter how many lines the cart has. Amounts are in cents.
+ * </p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Cart#getTotals()
+ */
+public final class CartTotals {
+
+    static final CartTotals EMPTY = new CartTotals(0, 0, 0, 0, 0, 0, 0);
+
+    private final int lineCount;
+    private final int itemCount;
+    private final long subtotal;
+    private final long tax;
+    private final long totalBeforeDiscounts;
+    private final long discount;
+    private final long total;
+
+    CartTotals(int lineCount, int itemCount, long subtotal, long tax, long totalBeforeDiscounts, long discount, long total) {
+        this.lineCount = lineCount;
+        this.itemCount = itemCount;
+        this.subtotal = subtotal;
+        this.tax = tax;
+        this.totalBeforeDiscounts = totalBeforeDiscounts;
+        this.discount = discount;
+        this.total = total;
+    }
+
+    /**
+     * Gets the number of lines in the cart.
+     *
+     * @return int
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Gets the total number of units in the cart.
+     *
+     * @return int
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Gets the marked up cost of every item before tax and discounts.
+     *
+     * @return cents (long)
+     */
+    public long getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * Gets the sales tax on the subtotal.
+     *
+     * @return cents (long)
+     */
+    public long getTax() {
+        return tax;
+    }
+
+    /**
+     * Gets the subtotal plus tax, before discounts.
+     *
+     * @return cents (long)
+     */
+    public long getTotalBeforeDiscounts() {
+        return totalBeforeDiscounts;
+    }
+
+    /**
+     * Gets the amount taken off by item and cart-wide discounts.
+     *
+     * @return cents (long)
+     */
+    public long getDiscount() {
+        return discount;
+    }
+
+    /**
+     * Gets the final amount to pay, after discounts and including tax.
+     *
+     * @return cents (long)
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "CartTotals{" +
+                "lineCount=" + lineCount +
+                ", itemCount=" + itemCount +
+                ", subtotal=" + Money.format(subtotal) +
+                ", tax=" + Money.format(tax) +
+                ", discount=" + Money.format(discount) +
+                ", total=" + Money.format(total) +
+                '}';
+    }
+}
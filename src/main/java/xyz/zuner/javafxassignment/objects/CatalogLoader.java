@@ -0,0 +1,224 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Streaming parser for the product catalog file. The catalog is read one line at a time and each row is handed to a
+ * consumer as soon as it is parsed, so memory use does not depend on the size of the file.
+ * </p>
+ * <br>
+ * <p>The catalog is a CSV file with a header row and the columns {@code upc,name,price,stock,category,options}.
+ * Options are written as {@code Color=Black|Silver;Storage=64GB|128GB}, and the column may be left out for products
+ * without options. Fields may be double-quoted if they contain
+ * commas, with {@code ""} as an escaped quote.</p>
+ * <br>
+ * <p>Repeated strings (categories, option names and option value lists) are shared between products rather than
+ * allocated once per row.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Inventory
+ */
+public class CatalogLoader {
+
+    private static final int COLUMNS = 6;
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<String, List<String>> optionValues = new HashMap<>();
+    private final List<String> fields = new ArrayList<>(COLUMNS);
+
+    /**
+     * Reads every product from the catalog.
+     *
+     * @param reader   the catalog to read, positioned at the header row
+     * @param source   name of the catalog used in error messages
+     * @param consumer called once per parsed product, in file order
+     * @return statistics about the load
+     * @throws IOException if the catalog cannot be read
+     */
+    public Result load(BufferedReader reader, String source, Consumer<Product> consumer) throws IOException {
+        long start = System.nanoTime();
+        int loaded = 0, skipped = 0;
+        int lineNumber = 1;
+
+        String line = reader.readLine(); // header
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                consumer.accept(parse(line));
+                loaded++;
+            } catch (IllegalArgumentException e) {
+                if (skipped++ < MAX_REPORTED_ERRORS) {
+                    System.err.println("Skipping " + source + ":" + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return new Result(source, loaded, skipped, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Parses a single catalog row.
+     *
+     * @param line the raw CSV line
+     * @return Product
+     * @throws IllegalArgumentException if the row is malformed
+     */
+    Product parse(String line) {
+        split(line);
+        if (fields.size() < COLUMNS - 1) { // the options column may be left out
+            throw new IllegalArgumentException("expected " + (COLUMNS - 1) + " or " + COLUMNS + " columns but found " + fields.size());
+        }
+
+        String upc = fields.get(0).trim();
+        String name = fields.get(1).trim();
+        if (upc.isEmpty() || name.isEmpty()) {
+            throw new IllegalArgumentException("UPC and name cannot be empty");
+        }
+        double price;
+        int stock;
+        try {
+            price = Double.parseDouble(fields.get(2).trim());
+            stock = Integer.parseInt(fields.get(3).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number: " + e.getMessage());
+        }
+        if (price < 0 || stock < 0) {
+            throw new IllegalArgumentException("price and stock cannot be negative");
+        }
+
+        Product product = new Product(name, upc, price, stock, intern(fields.get(4).trim()));
+        if (fields.size() > 5) {
+            parseOptions(product, fields.get(5));
+        }
+        return product;
+    }
+
+    private void parseOptions(Product product, String spec) {
+        int start = 0;
+        while (start < spec.length()) {
+            int end = spec.indexOf(';', start);
+            if (end < 0) {
+                end = spec.length();
+            }
+            int eq = spec.indexOf('=', start);
+            if (eq > start && eq < end) {
+                String category = intern(spec.substring(start, eq).trim());
+                String values = spec.substring(eq + 1, end).trim();
+                product.addOption(category, optionValues.computeIfAbsent(values, this::splitValues));
+            }
+            start = end + 1;
+        }
+    }
+
+    private List<String> splitValues(String values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values.split("\\|")) {
+            if (!value.isBlank()) {
+                list.add(intern(value.trim()));
+            }
+        }
+        return List.copyOf(list);
+    }
+
+    private String intern(String value) {
+        return strings.computeIfAbsent(value, v -> v);
+    }
+
+    /**
+     * Splits a CSV line into {@link #fields}, honouring double-quoted fields.
+     */
+    private void split(String line) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+    }
+
+    /**
+     * Statistics reported after a catalog load.
+     */
+    public static class Result {
+
+        private final String source;
+        private final int loaded;
+        private final int skipped;
+        private final long millis;
+
+        Result(String source, int loaded, int skipped, long millis) {
+            this.source = source;
+            this.loaded = loaded;
+            this.skipped = skipped;
+            this.millis = millis;
+        }
+
+        /**
+         * Gets the number of rows turned into products.
+         *
+         * @return int
+         */
+        public int getLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Gets the number of malformed rows that were skipped.
+         *
+         * @return int
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * Gets how long the load took.
+         *
+         * @return milliseconds (long)
+         */
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return "Loaded " + loaded + " products from " + source + " in " + millis + " ms"
+                    + (skipped > 0 ? " (" + skipped + " malformed rows skipped)" : "");
+        }
+    }
+}
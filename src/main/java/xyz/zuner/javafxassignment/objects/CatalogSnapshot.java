@@ -0,0 +1,298 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * <p>
+ * Compact binary snapshot of the product catalog, used to skip parsing the text catalog on start up.
+ * </p>
+ * <br>
+ * <p>The file starts with a fixed header: magic number, format version, the size and modification time of the source
+ * catalog the snapshot was built from, the first {@link StockJournal} generation not yet folded into the snapshot, the
+ * payload length and a CRC32 of the payload. A snapshot whose header does not match the current source catalog (or
+ * whose checksum fails) is ignored and the caller falls back to the source.</p>
+ * <p>The payload is a string table shared by categories and options, a table of option value lists, then every
+ * product in catalog order, so replaying them rebuilds the category lists, the UPC index and the other inventory
+ * indexes in the same pass.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Inventory
+ */
+public class CatalogSnapshot {
+
+    private static final int MAGIC = 0x5A434154; // "ZCAT"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 8 + 8;
+    private static final int MAX_OPTIONS = 255; // the option count of a product is one unsigned byte
+
+    /**
+     * Writes a snapshot of the given products. The snapshot is written to a temporary file and moved into place, so
+     * readers never see a partially written snapshot.
+     *
+     * @param snapshot       the snapshot file to write
+     * @param products       every product, in catalog order
+     * @param sourceSize     size in bytes of the source catalog
+     * @param sourceModified last modified time in milliseconds of the source catalog
+     * @throws IOException if the snapshot cannot be written, or a product has more than 255 option categories
+     */
+    public static void write(Path snapshot, Collection<Product> products, long sourceSize, long sourceModified) throws IOException {
+        int[] stock = new int[products.size()];
+        int i = 0;
+        for (Product product : products) {
+            stock[i++] = product.getOnHand();
+        }
+        write(snapshot, products, stock, sourceSize, sourceModified, 1);
+    }
+
+    /**
+     * Writes a snapshot of the given products with the given stock levels, e.g. ones captured at a journal
+     * checkpoint. The snapshot is written to a temporary file and moved into place, so readers never see a partially
+     * written snapshot.
+     *
+     * @param snapshot          the snapshot file to write
+     * @param products          every product, in catalog order
+     * @param stock             the stock of each product, in the same order
+     * @param sourceSize        size in bytes of the source catalog
+     * @param sourceModified    last modified time in milliseconds of the source catalog
+     * @param journalGeneration the first journal generation whose changes are not included in the stock levels
+     * @throws IOException if the snapshot cannot be written, or a product has more than 255 option categories
+     */
+    public static void write(Path snapshot, Collection<Product> products, int[] stock, long sourceSize, long sourceModified,
+                             long journalGeneration) throws IOException {
+        // build the shared string and option list tables
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> stringTable = new ArrayList<>();
+        Map<List<String>, Integer> lists = new IdentityHashMap<>();
+        List<List<String>> listTable = new ArrayList<>();
+        for (Product product : products) {
+            if (product.getOptions().size() > MAX_OPTIONS) {
+                throw new IOException("Product " + product.getUPC() + " has " + product.getOptions().size()
+                        + " option categories, a snapshot holds at most " + MAX_OPTIONS);
+            }
+            idOf(product.getCategory(), strings, stringTable);
+            product.getOptions().forEach((name, values) -> {
+                idOf(name, strings, stringTable);
+                if (!lists.containsKey(values)) {
+                    lists.put(values, listTable.size());
+                    listTable.add(values);
+                    values.forEach(value -> idOf(value, strings, stringTable));
+                }
+            });
+        }
+
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            CountingStream counter = new CountingStream(Channels.newOutputStream(channel), crc);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(counter, 1 << 16));
+
+            out.writeInt(stringTable.size());
+            for (String string : stringTable) {
+                writeString(out, string);
+            }
+            out.writeInt(listTable.size());
+            for (List<String> values : listTable) {
+                out.writeInt(values.size());
+                for (String value : values) {
+                    out.writeInt(strings.get(value));
+                }
+            }
+            out.writeInt(products.size());
+            int index = 0;
+            for (Product product : products) {
+                writeString(out, product.getUPC());
+                writeString(out, product.getName());
+                out.writeDouble(product.getPrice());
+                out.writeInt(stock[index++]);
+                out.writeInt(strings.get(product.getCategory()));
+                out.writeByte(product.getOptions().size());
+                for (Map.Entry<String, List<String>> option : product.getOptions().entrySet()) {
+                    out.writeInt(strings.get(option.getKey()));
+                    out.writeInt(lists.get(option.getValue()));
+                }
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION)
+                    .putLong(sourceSize).putLong(sourceModified).putLong(journalGeneration)
+                    .putLong(counter.getCount()).putLong(crc.getValue())
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot through a memory mapping, handing every product to the consumer in catalog order.
+     *
+     * @param snapshot       the snapshot file to read
+     * @param sourceSize     size in bytes of the current source catalog
+     * @param sourceModified last modified time in milliseconds of the current source catalog
+     * @param consumer       called once per product
+     * @return statistics about the load, or null if the snapshot is missing, stale or corrupt
+     */
+    public static CatalogLoader.Result read(Path snapshot, long sourceSize, long sourceModified, Consumer<Product> consumer) {
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != sourceSize || buffer.getLong() != sourceModified) {
+                return null;
+            }
+            buffer.getLong(); // journal generation, see journalGeneration(Path)
+            long payloadLength = buffer.getLong();
+            long checksum = buffer.getLong();
+            if (payloadLength != size - HEADER_SIZE) {
+                return null;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice());
+            if (crc.getValue() != checksum) {
+                System.err.println("Ignoring corrupt catalog snapshot " + snapshot);
+                return null;
+            }
+
+            byte[] scratch = new byte[256];
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readString(buffer, scratch);
+            }
+            List<List<String>> lists = new ArrayList<>();
+            int listCount = buffer.getInt();
+            for (int i = 0; i < listCount; i++) {
+                String[] values = new String[buffer.getInt()];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = strings[buffer.getInt()];
+                }
+                lists.add(List.of(values));
+            }
+
+            int productCount = buffer.getInt();
+            for (int i = 0; i < productCount; i++) {
+                String upc = readString(buffer, scratch);
+                String name = readString(buffer, scratch);
+                double price = buffer.getDouble();
+                int stock = buffer.getInt();
+                Product product = new Product(name, upc, price, stock, strings[buffer.getInt()]);
+                int optionCount = Byte.toUnsignedInt(buffer.get());
+                for (int j = 0; j < optionCount; j++) {
+                    product.addOption(strings[buffer.getInt()], lists.get(buffer.getInt()));
+                }
+                consumer.accept(product);
+            }
+            return new CatalogLoader.Result(snapshot.toString(), productCount, 0, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable catalog snapshot " + snapshot + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the first journal generation not folded into a snapshot. Only meaningful for a snapshot that
+     * {@link #read(Path, long, long, Consumer)} accepted.
+     *
+     * @param snapshot the snapshot file
+     * @return the generation, or 1 if the header cannot be read
+     */
+    public static long journalGeneration(Path snapshot) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is full or the file ends
+            }
+            return header.position() == HEADER_SIZE ? header.getLong(4 + 4 + 8 + 8) : 1;
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+
+    private static int idOf(String value, Map<String, Integer> ids, List<String> table) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = table.size();
+            ids.put(value, id);
+            table.add(value);
+        }
+        return id;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] scratch) {
+        int length = buffer.getInt();
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Output stream that checksums and counts everything written through it.
+     */
+    private static class CountingStream extends CheckedOutputStream {
+
+        private long count;
+
+        CountingStream(OutputStream out, CRC32 crc) {
+            super(out, crc);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            super.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package xyz.zuner.javafxassignment.objects;
 
-import com.google.gson.annotations.SerializedName;
+import xyz.zuner.javafxassignment.util.Money;
 
+import java.math.RoundingMode;
+
+import java.time.Instant;
 import java.util.Set;
 
 /**
@@ -24,20 +27,20 @@ import java.util.Set;
 public class Discount {
 
     private String code;
-    @SerializedName("discount_amount")
     private double amount;
-    @SerializedName("is_percentage")
     private boolean isPercentage;
-    @SerializedName("discount_type")
     private DiscountType discountType;
-    @SerializedName("required_quantity")
     private int requiredQuantity; // quantity required to trigger discount (for things like BOGO)
-    @SerializedName("discount_on_additional")
     private double discountOnAdditional;
-    @SerializedName("is_item_specific")
     private boolean isItemSpecific;
-    @SerializedName("applicable_product_upcs")
     private Set<String> applicableProductUPCs;
+    private boolean stackable; // may be combined with other stackable discounts
+    private boolean automatic; // applied to every cart without entering the code
+    private Instant startsAt; // null if valid from the start
+    private Instant endsAt; // exclusive, null if it never ends
+    private int maxUses; // redemptions across every customer, 0 for no limit
+    private int maxUsesPerCustomer; // redemptions by a single customer, 0 for no limit
+    private transient DiscountRule rule; // compiled on first use
 
     /**
      * Constructor for flat rate and percentage discounts.
@@ -51,6 +54,24 @@ public class Discount {
         this.applicableProductUPCs = applicableProductUPCs;
     }
 
+    /**
+     * Constructor used when decoding the discount file, every field as written in the file.
+     */
+    Discount(String code, double amount, boolean isPercentage, DiscountType discountType, int requiredQuantity,
+             double discountOnAdditional, boolean isItemSpecific, Set<String> applicableProductUPCs,
+             boolean stackable, boolean automatic) {
+        this.code = code;
+        this.amount = amount;
+        this.isPercentage = isPercentage;
+        this.discountType = discountType;
+        this.requiredQuantity = requiredQuantity;
+        this.discountOnAdditional = discountOnAdditional;
+        this.isItemSpecific = isItemSpecific;
+        this.applicableProductUPCs = applicableProductUPCs;
+        this.stackable = stackable;
+        this.automatic = automatic;
+    }
+
     /**
      * Constructor for BOGO and BOGO_PERCENTAGE discounts.
      */
@@ -83,29 +104,57 @@ public class Discount {
     }
 
     /**
-     * Applies this discount based on the type of discount and quantity of items.
+     * Gets the type of discount.
      *
-     * @param originalAmount the original amount before discount
-     * @param quantity       the quantity of items being purchased
-     * @return the adjusted amount after applying the discount
-     */
-    public double applyTo(double originalAmount, int quantity) {
-        switch (discountType) {
-            case FLAT:
-                return originalAmount - amount;
-            case PERCENTAGE:
-                return originalAmount * (1 - amount);
-            case BOGO:
-                // assumes the free item is of equal or lesser value (simple BOGO)
-                int eligibleFreeItems = quantity / requiredQuantity;
-                return originalAmount - (eligibleFreeItems * (originalAmount / quantity));
-            case BOGO_PERCENTAGE:
-                int discountItems = quantity / requiredQuantity;
-                double discountAmount = originalAmount / quantity * discountItems * discountOnAdditional;
-                return originalAmount - discountAmount;
-            default:
-                return originalAmount;
+     * @return DiscountType
+     */
+    public DiscountType getType() {
+        return discountType;
+    }
+
+    /**
+     * Gets the quantity required to trigger a BOGO discount.
+     *
+     * @return int
+     */
+    public int getRequiredQuantity() {
+        return requiredQuantity;
+    }
+
+    /**
+     * Gets the rate taken off the additional item of a BOGO discount.
+     *
+     * @return rate as a fraction (double)
+     */
+    public double getDiscountOnAdditional() {
+        return discountOnAdditional;
+    }
+
+    /**
+     * Gets the evaluator compiled from this discount, compiling it on first use.
+     *
+     * @return DiscountRule
+     */
+    public DiscountRule getRule() {
+        DiscountRule compiled = rule;
+        if (compiled == null) {
+            compiled = DiscountRule.compile(this);
+            rule = compiled;
         }
+        return compiled;
+    }
+
+    /**
+     * Applies this discount based on the type of discount and quantity of items. Fractions of a cent are rounded half
+     * up in the amount taken off.
+     *
+     * @param originalAmount the original amount before discount, in cents
+     * @param quantity       the quantity of items being purchased
+     * @return the adjusted amount after applying the discount, in cents
+     * @see DiscountRule
+     */
+    public long applyTo(long originalAmount, int quantity) {
+        return getRule().applyTo(originalAmount, quantity);
     }
 
     /**
@@ -117,6 +166,113 @@ public class Discount {
         return isItemSpecific;
     }
 
+    /**
+     * Checks if the Discount may be combined with other stackable discounts.
+     *
+     * @return boolean
+     * @see PromotionResolver
+     */
+    public boolean isStackable() {
+        return stackable;
+    }
+
+    /**
+     * Sets whether the Discount may be combined with other stackable discounts.
+     *
+     * @param stackable true to allow stacking
+     */
+    public void setStackable(boolean stackable) {
+        this.stackable = stackable;
+    }
+
+    /**
+     * Checks if the Discount applies to every cart without its code being entered.
+     *
+     * @return boolean
+     */
+    public boolean isAutomatic() {
+        return automatic;
+    }
+
+    /**
+     * Sets whether the Discount applies to every cart without its code being entered.
+     *
+     * @param automatic true to apply automatically
+     */
+    public void setAutomatic(boolean automatic) {
+        this.automatic = automatic;
+    }
+
+    /**
+     * Gets the time from which the Discount can be used.
+     *
+     * @return Instant, null if it has no start
+     */
+    public Instant getStartsAt() {
+        return startsAt;
+    }
+
+    /**
+     * Gets the time from which the Discount can no longer be used.
+     *
+     * @return Instant, null if it never ends
+     */
+    public Instant getEndsAt() {
+        return endsAt;
+    }
+
+    /**
+     * Sets the period in which the Discount can be used.
+     *
+     * @param startsAt first moment it can be used, null for no start
+     * @param endsAt   first moment it can no longer be used, null for no end
+     */
+    public void setValidity(Instant startsAt, Instant endsAt) {
+        this.startsAt = startsAt;
+        this.endsAt = endsAt;
+    }
+
+    /**
+     * Checks if the Discount can be used at the given time.
+     *
+     * @param now the time of use
+     * @return boolean
+     */
+    public boolean isActiveAt(Instant now) {
+        return (startsAt == null || !now.isBefore(startsAt)) && (endsAt == null || now.isBefore(endsAt));
+    }
+
+    /**
+     * Gets the most times the Discount can be redeemed in total.
+     *
+     * @return int, 0 for no limit
+     * @see RedemptionLedger
+     */
+    public int getMaxUses() {
+        return maxUses;
+    }
+
+    /**
+     * Gets the most times a single customer can redeem the Discount.
+     *
+     * @return int, 0 for no limit
+     * @see RedemptionLedger
+     */
+    public int getMaxUsesPerCustomer() {
+        return maxUsesPerCustomer;
+    }
+
+    /**
+     * Sets the redemption limits of the Discount.
+     *
+     * @param maxUses            most redemptions in total, 0 for no limit
+     * @param maxUsesPerCustomer most redemptions by a single customer, 0 for no limit
+     */
+    public void setUsageLimits(int maxUses, int maxUsesPerCustomer) {
+        this.maxUses = maxUses;
+        this.maxUsesPerCustomer = maxUsesPerCustomer;
+    }
+
     /**
      * Returns the set of UPCs for which this Discount is applicable.
      *
@@ -137,6 +293,12 @@ public class Discount {
                 ", discountOnAdditional=" + discountOnAdditional +
                 ", isItemSpecific=" + isItemSpecific +
                 ", applicableProductUPCs=" + applicableProductUPCs +
+                ", stackable=" + stackable +
+                ", automatic=" + automatic +
+                ", startsAt=" + startsAt +
+                ", endsAt=" + endsAt +
+                ", maxUses=" + maxUses +
+                ", maxUsesPerCustomer=" + maxUsesPerCustomer +
                 '}';
     }
 
@@ -0,0 +1,136 @@
+package xyz.zuner.javafxassignment.objects;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ * Streaming decoder for the discount file, a JSON array of discount objects.
+ * </p>
+ * <br>
+ * <p>Fields are matched by name as they are read, so nothing is looked up reflectively and no intermediate tree is
+ * built. Unknown fields are skipped, missing ones keep their defaults, and {@code null} is treated as missing.
+ * Timestamps ({@code starts_at}, {@code ends_at}) are ISO-8601 instants such as {@code 2026-11-27T05:00:00Z}.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see DiscountFactory
+ * @see Discount
+ */
+final class DiscountDecoder {
+
+    private DiscountDecoder() {
+    }
+
+    /**
+     * Reads every discount in the file.
+     *
+     * @param source the discount file
+     * @return the discounts in file order
+     * @throws IOException              if the file cannot be read or is not well-formed JSON
+     * @throws IllegalStateException    if the JSON does not have the expected shape
+     * @throws IllegalArgumentException if a discount type or timestamp is invalid
+     */
+    static List<Discount> readAll(Reader source) throws IOException {
+        List<Discount> discounts = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(source)) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                discounts.add(read(reader));
+            }
+            reader.endArray();
+        }
+        return discounts;
+    }
+
+    private static Discount read(JsonReader reader) throws IOException {
+        String code = null;
+        double amount = 0;
+        boolean isPercentage = false;
+        Discount.DiscountType type = null;
+        int requiredQuantity = 0;
+        double discountOnAdditional = 0;
+        boolean isItemSpecific = false;
+        Set<String> upcs = null;
+        boolean stackable = false;
+        boolean automatic = false;
+        Instant startsAt = null;
+        Instant endsAt = null;
+        int maxUses = 0;
+        int maxUsesPerCustomer = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "code" -> code = reader.nextString();
+                case "discount_amount" -> amount = reader.nextDouble();
+                case "is_percentage" -> isPercentage = reader.nextBoolean();
+                case "discount_type" -> type = parseType(reader.nextString());
+                case "required_quantity" -> requiredQuantity = reader.nextInt();
+                case "discount_on_additional" -> discountOnAdditional = reader.nextDouble();
+                case "is_item_specific" -> isItemSpecific = reader.nextBoolean();
+                case "applicable_product_upcs" -> upcs = readStrings(reader);
+                case "stackable" -> stackable = reader.nextBoolean();
+                case "automatic" -> automatic = reader.nextBoolean();
+                case "starts_at" -> startsAt = parseInstant(reader.nextString());
+                case "ends_at" -> endsAt = parseInstant(reader.nextString());
+                case "max_uses" -> maxUses = reader.nextInt();
+                case "max_uses_per_customer" -> maxUsesPerCustomer = reader.nextInt();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        Discount discount = new Discount(code, amount, isPercentage, type, requiredQuantity, discountOnAdditional,
+                isItemSpecific, upcs, stackable, automatic);
+        discount.setValidity(startsAt, endsAt);
+        discount.setUsageLimits(maxUses, maxUsesPerCustomer);
+        return discount;
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid timestamp " + value + ", expected e.g. 2026-11-27T05:00:00Z");
+        }
+    }
+
+    private static Discount.DiscountType parseType(String value) {
+        try {
+            return Discount.DiscountType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown discount type " + value);
+        }
+    }
+
+    private static Set<String> readStrings(JsonReader reader) throws IOException {
+        Set<String> values = new HashSet<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(reader.nextString());
+        }
+        reader.endArray();
+        return values;
+    }
+}
@@ -1,21 +1,43 @@
 package xyz.zuner.javafxassignment.objects;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Type;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * <p>
  * Provides logic for parsing Discounts from a JSON file.
  * </p>
  * <br>
+ * <p>The loaded discounts are published as one immutable catalog behind a volatile reference. Readers such as
+ * checkout never take a lock and always see either the old catalog or the new one in full. A file is parsed and
+ * validated before it replaces anything, so a file with a single bad entry is rejected as a whole and the previous
+ * discounts stay in effect.</p>
+ * <br>
+ * <p>The bundled {@code /assets/discounts.json} is used unless the {@code store.discounts} system property names an
+ * external file. That file is watched, and is reloaded on a background thread whenever it changes.</p>
+ * <br>
+ * <p>Nothing is loaded when the class is first touched. {@link #loadAsync()} starts the first load on a background
+ * thread, and the getters return an empty catalog until it finishes. Code that needs the discounts, such as entering
+ * a promo code, calls {@link #awaitReady()}, which only waits if the first load is still running.</p>
+ * <br>
  * <p>21:198:102/02 Computers and Programming II</p>
  * <p>JavaFX Assignment</p>
  * <p>Rutgers ID: 199009651</p>
@@ -28,47 +50,258 @@ import java.util.Set;
  */
 public class DiscountFactory {
 
-    private static final Map<String, Discount> discountMap = new HashMap<>();
+    private static final String BUNDLED_DISCOUNTS = "/assets/discounts.json";
+    private static final long SETTLE_MILLIS = 250; // editors often save a file in more than one write
+
+    private static final long READY_TIMEOUT_MILLIS = 5000; // longest a caller waits for the first load
 
-    static {
-        loadDiscounts("/assets/discounts.json");
-        printAllDiscounts();
+    private static volatile Catalog catalog = Catalog.EMPTY;
+    private static final Object loadLock = new Object(); // orders concurrent loads, never taken by readers
+    private static Thread watcher; // guarded by loadLock
+
+    private static final AtomicBoolean started = new AtomicBoolean();
+    private static final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    /**
+     * Starts loading the discounts on a background thread, unless that was already done. The future completes once
+     * the first load has finished, whether or not it found any valid discounts.
+     *
+     * @return a future that completes when the discounts are loaded
+     */
+    public static CompletableFuture<Void> loadAsync() {
+        if (started.compareAndSet(false, true)) {
+            Thread loader = new Thread(DiscountFactory::loadInitial, "discount-loader");
+            loader.setDaemon(true);
+            loader.start();
+        }
+        return ready;
     }
 
     /**
-     * Parses a JSON file in-order to serialize a new Discount object.
+     * Checks if the first load has finished.
      *
-     * @param filePath the path to the discount file
+     * @return boolean
+     */
+    public static boolean isReady() {
+        return ready.isDone();
+    }
+
+    /**
+     * Waits for the first load to finish, starting it if nobody has yet. Returns at once if it already finished, and
+     * gives up after a few seconds so a slow file system cannot hang the caller.
+     */
+    public static void awaitReady() {
+        if (ready.isDone()) {
+            return;
+        }
+        try {
+            loadAsync().get(READY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Discounts are still loading, continuing without them");
+        }
+    }
+
+    private static void loadInitial() {
+        try {
+            String external = System.getProperty("store.discounts");
+            if (external != null && !external.isBlank()) {
+                Path file = Path.of(external);
+                reload(file);
+                watch(file);
+            } else {
+                loadDiscounts(BUNDLED_DISCOUNTS);
+            }
+        } finally {
+            ready.complete(null);
+        }
+    }
+
+    /**
+     * Parses a bundled JSON resource and, if every discount in it is valid, makes it the active catalog.
+     *
+     * @param filePath the path to the discount resource
+     * @return true if the discounts were swapped in, false if the resource was missing or invalid
      * @see Discount
      */
-    public static void loadDiscounts(String filePath) {
+    public static boolean loadDiscounts(String filePath) {
         try (InputStream is = DiscountFactory.class.getResourceAsStream(filePath)) {
             if (is == null) {
                 throw new IOException("Resource not found: " + filePath);
             }
-            String content = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            Gson gson = new Gson();
-            Type type = new TypeToken<Set<Discount>>() {
-            }.getType();
-            Set<Discount> discounts = gson.fromJson(content, type);
-
-            for (Discount discount : discounts) {
-                discountMap.put(discount.getCode(), discount);
-            }
+            return load(new InputStreamReader(is, StandardCharsets.UTF_8), filePath);
         } catch (IOException e) {
             System.err.println("Error loading discounts from resource: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Parses an external JSON file and, if every discount in it is valid, makes it the active catalog.
+     *
+     * @param file the discount file
+     * @return true if the discounts were swapped in, false if the file was missing or invalid
+     */
+    public static boolean reload(Path file) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader, file.toString());
+        } catch (IOException e) {
+            System.err.println("Error loading discounts from " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean load(Reader reader, String source) {
+        synchronized (loadLock) {
+            try {
+                catalog = Catalog.of(DiscountDecoder.readAll(reader));
+            } catch (IOException | IllegalStateException | IllegalArgumentException e) {
+                System.err.println("Rejected discounts from " + source + ", keeping the current ones: " + e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts watching an external discount file, reloading it on a background thread whenever it is created or
+     * modified. Only one file is watched at a time; later calls are ignored.
+     *
+     * @param file the discount file
+     */
+    public static void watch(Path file) {
+        Path absolute = file.toAbsolutePath();
+        Path directory = absolute.getParent();
+        synchronized (loadLock) {
+            if (watcher != null || directory == null) {
+                return;
+            }
+            WatchService service;
+            try {
+                service = directory.getFileSystem().newWatchService();
+                directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException e) {
+                System.err.println("Cannot watch " + absolute + " for discount changes: " + e.getMessage());
+                return;
+            }
+            watcher = new Thread(() -> watchLoop(service, absolute), "discount-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    private static void watchLoop(WatchService service, Path file) {
+        Path name = file.getFileName();
+        try (service) {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = touches(key, name);
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+                // let the writer finish, then fold any events it caused into this one reload
+                Thread.sleep(SETTLE_MILLIS);
+                for (WatchKey more = service.poll(); more != null; more = service.poll()) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                reload(file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException | IOException e) {
+            System.err.println("Stopped watching " + file + " for discount changes: " + e.getMessage());
+        }
+    }
+
+    private static boolean touches(WatchKey key, Path name) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // an overflow means events were lost, so the file may have changed
+            touched |= event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
         }
+        return touched;
     }
 
     public static Discount getDiscountByCode(String code) {
-        return discountMap.get(code);
+        return catalog.byCode.get(code);
     }
 
-    private static void printAllDiscounts() {
-        discountMap.forEach((code, discount) -> System.out.println(discount.toString()));
+    /**
+     * Gets every loaded discount compiled into a rule set.
+     *
+     * @return DiscountRuleSet
+     */
+    public static DiscountRuleSet getRuleSet() {
+        return catalog.ruleSet;
     }
 
+    /**
+     * Gets the discounts that apply to every cart without their code being entered.
+     *
+     * @return unmodifiable List of Discount
+     */
+    public static List<Discount> getAutomaticDiscounts() {
+        return catalog.automatic;
+    }
+
+    /**
+     * Gets the loaded discounts by code. The map is a snapshot, a reload publishes a new one.
+     *
+     * @return unmodifiable Map of code to Discount
+     */
     public static Map<String, Discount> getDiscountMap() {
-        return discountMap;
+        return catalog.byCode;
+    }
+
+    /**
+     * One complete, validated set of discounts. Never modified once published.
+     */
+    private static final class Catalog {
+
+        static final Catalog EMPTY = new Catalog(Map.of(), DiscountRuleSet.EMPTY, List.of());
+
+        final Map<String, Discount> byCode;
+        final DiscountRuleSet ruleSet;
+        final List<Discount> automatic;
+
+        private Catalog(Map<String, Discount> byCode, DiscountRuleSet ruleSet, List<Discount> automatic) {
+            this.byCode = byCode;
+            this.ruleSet = ruleSet;
+            this.automatic = automatic;
+        }
+
+        /**
+         * Validates and compiles a parsed discount list.
+         *
+         * @throws IllegalArgumentException on the first discount that has no code, repeats a code, has invalid limits
+         *                                  or does not compile
+         */
+        static Catalog of(List<Discount> discounts) {
+            Map<String, Discount> byCode = new HashMap<>(discounts.size() * 2);
+            for (Discount discount : discounts) {
+                if (discount == null || discount.getCode() == null || discount.getCode().isBlank()) {
+                    throw new IllegalArgumentException("Discount without a code");
+                }
+                if (byCode.putIfAbsent(discount.getCode(), discount) != null) {
+                    throw new IllegalArgumentException("Discount code " + discount.getCode() + " is listed twice");
+                }
+                if (discount.getMaxUses() < 0 || discount.getMaxUsesPerCustomer() < 0) {
+                    throw new IllegalArgumentException("Discount " + discount.getCode() + " has a negative usage limit");
+                }
+                if (discount.getStartsAt() != null && discount.getEndsAt() != null
+                        && !discount.getStartsAt().isBefore(discount.getEndsAt())) {
+                    throw new IllegalArgumentException("Discount " + discount.getCode() + " ends before it starts");
+                }
+                discount.getRule(); // compile now rather than on the first checkout
+            }
+            return new Catalog(
+                    Map.copyOf(byCode),
+                    DiscountRuleSet.of(byCode.values()),
+                    byCode.values().stream().filter(Discount::isAutomatic).toList()
+            );
+        }
     }
 }
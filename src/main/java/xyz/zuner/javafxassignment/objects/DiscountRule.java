@@ -0,0 +1,196 @@
+package xyz.zuner.javafxassignment.objects;
+
+import xyz.zuner.javafxassignment.util.Money;
+
+import java.math.RoundingMode;
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * A {@link Discount} compiled into an evaluator specialised for its type, with its rates converted to basis points
+ * and its product list resolved to a bit set over product ordinals up front.
+ * </p>
+ * <br>
+ * <p>Evaluating a rule is plain arithmetic: no switch on the discount type, no string hashing to check whether a
+ * product qualifies, and no allocation.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see DiscountRuleSet
+ * @see Product#getOrdinal()
+ */
+public abstract class DiscountRule {
+
+    private final Discount discount;
+    private final BitSet products; // ordinals of the products an item-specific rule applies to
+
+    private DiscountRule(Discount discount) {
+        this.discount = discount;
+        this.products = new BitSet();
+        Set<String> upcs = discount.getApplicableProductUPCs();
+        if (upcs != null) {
+            for (String upc : upcs) {
+                products.set(Product.ordinalOf(upc));
+            }
+        }
+    }
+
+    /**
+     * Compiles a discount into its evaluator.
+     *
+     * @param discount the discount definition
+     * @return DiscountRule
+     * @throws IllegalArgumentException if the discount has no type or an invalid required quantity
+     */
+    public static DiscountRule compile(Discount discount) {
+        if (discount.getType() == null) {
+            throw new IllegalArgumentException("Discount " + discount.getCode() + " has no discount type");
+        }
+        switch (discount.getType()) {
+            case FLAT:
+                return new Flat(discount);
+            case PERCENTAGE:
+                return new Percentage(discount);
+            case BOGO:
+                return new BuyXGetOne(discount, Money.BASIS_POINTS);
+            case BOGO_PERCENTAGE:
+                return new BuyXGetOne(discount, Money.ofRate(discount.getDiscountOnAdditional()));
+            default:
+                throw new IllegalArgumentException("Unknown discount type " + discount.getType());
+        }
+    }
+
+    /**
+     * Gets the discount this rule was compiled from.
+     *
+     * @return Discount
+     */
+    public Discount getDiscount() {
+        return discount;
+    }
+
+    /**
+     * Checks if the rule applies to single products rather than the whole cart.
+     *
+     * @return boolean
+     */
+    public boolean isItemSpecific() {
+        return discount.isItemSpecific();
+    }
+
+    /**
+     * Checks whether an item-specific rule applies to a product.
+     *
+     * @param productOrdinal the product's ordinal
+     * @return boolean
+     */
+    public boolean appliesTo(int productOrdinal) {
+        return products.get(productOrdinal);
+    }
+
+    /**
+     * Gets the ordinals of the products an item-specific rule applies to.
+     *
+     * @return a copy of the product bit set
+     */
+    BitSet getProducts() {
+        return (BitSet) products.clone();
+    }
+
+    /**
+     * Calculates how much this rule takes off an amount.
+     *
+     * @param amount   the amount before the discount, in cents
+     * @param quantity the number of units the amount is for
+     * @return the amount taken off, in cents
+     */
+    public abstract long amountOff(long amount, int quantity);
+
+    /**
+     * Applies this rule to an amount.
+     *
+     * @param amount   the amount before the discount, in cents
+     * @param quantity the number of units the amount is for
+     * @return the amount after the discount, in cents
+     */
+    public long applyTo(long amount, int quantity) {
+        return amount - amountOff(amount, quantity);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + discount.getCode() + "}";
+    }
+
+    /**
+     * Fixed amount off.
+     */
+    private static final class Flat extends DiscountRule {
+
+        private final long cents;
+
+        Flat(Discount discount) {
+            super(discount);
+            this.cents = Money.ofDollars(discount.getAmount());
+        }
+
+        @Override
+        public long amountOff(long amount, int quantity) {
+            return cents;
+        }
+    }
+
+    /**
+     * Percentage off the whole amount.
+     */
+    private static final class Percentage extends DiscountRule {
+
+        private final int basisPoints;
+
+        Percentage(Discount discount) {
+            super(discount);
+            this.basisPoints = Money.ofRate(discount.getAmount());
+        }
+
+        @Override
+        public long amountOff(long amount, int quantity) {
+            return Money.percentOf(amount, basisPoints, RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * Buy a number of units, get a percentage off one of them (100% for a plain BOGO). Assumes the discounted unit is
+     * of equal or lesser value.
+     */
+    private static final class BuyXGetOne extends DiscountRule {
+
+        private final int requiredQuantity;
+        private final int basisPoints; // off each discounted unit
+
+        BuyXGetOne(Discount discount, int basisPoints) {
+            super(discount);
+            if (discount.getRequiredQuantity() <= 0) {
+                throw new IllegalArgumentException("Discount " + discount.getCode() + " needs a required quantity above zero");
+            }
+            this.requiredQuantity = discount.getRequiredQuantity();
+            this.basisPoints = basisPoints;
+        }
+
+        @Override
+        public long amountOff(long amount, int quantity) {
+            int discountedUnits = quantity / requiredQuantity;
+            if (discountedUnits == 0) {
+                return 0;
+            }
+            long discountedAmount = Money.fractionOf(amount, discountedUnits, quantity, RoundingMode.HALF_UP);
+            return basisPoints == Money.BASIS_POINTS ? discountedAmount : Money.percentOf(discountedAmount, basisPoints, RoundingMode.HALF_UP);
+        }
+    }
+}
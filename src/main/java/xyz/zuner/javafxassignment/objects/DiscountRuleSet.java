@@ -0,0 +1,116 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * Immutable set of compiled {@link DiscountRule}s that a whole cart is evaluated against in one pass.
+ * </p>
+ * <br>
+ * <p>Item-specific rules are indexed by product ordinal, so each cart line only looks at the rules that can apply to
+ * its product instead of checking every active promotion. Cart-wide rules are kept in a separate list.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see DiscountFactory#getRuleSet()
+ */
+public final class DiscountRuleSet {
+
+    private static final DiscountRule[] NONE = new DiscountRule[0];
+
+    public static final DiscountRuleSet EMPTY = new DiscountRuleSet(List.of());
+
+    private final DiscountRule[][] rulesByProduct; // item-specific rules, indexed by product ordinal
+    private final DiscountRule[] cartRules;
+    private final int size;
+
+    private DiscountRuleSet(Collection<DiscountRule> rules) {
+        List<DiscountRule> cart = new ArrayList<>();
+        int[] counts = new int[0];
+        for (DiscountRule rule : rules) {
+            if (!rule.isItemSpecific()) {
+                cart.add(rule);
+                continue;
+            }
+            BitSet products = rule.getProducts();
+            if (products.length() > counts.length) {
+                counts = Arrays.copyOf(counts, products.length());
+            }
+            for (int ordinal = products.nextSetBit(0); ordinal >= 0; ordinal = products.nextSetBit(ordinal + 1)) {
+                counts[ordinal]++;
+            }
+        }
+
+        // fill the posting lists in a second pass now that their sizes are known
+        DiscountRule[][] byProduct = new DiscountRule[counts.length][];
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            byProduct[ordinal] = counts[ordinal] == 0 ? NONE : new DiscountRule[counts[ordinal]];
+            counts[ordinal] = 0;
+        }
+        for (DiscountRule rule : rules) {
+            if (rule.isItemSpecific()) {
+                BitSet products = rule.getProducts();
+                for (int ordinal = products.nextSetBit(0); ordinal >= 0; ordinal = products.nextSetBit(ordinal + 1)) {
+                    byProduct[ordinal][counts[ordinal]++] = rule;
+                }
+            }
+        }
+
+        this.rulesByProduct = byProduct;
+        this.cartRules = cart.toArray(NONE);
+        this.size = rules.size();
+    }
+
+    /**
+     * Compiles a set of discounts.
+     *
+     * @param discounts the discounts to include
+     * @return DiscountRuleSet
+     * @throws IllegalArgumentException if a discount cannot be compiled
+     */
+    public static DiscountRuleSet of(Collection<Discount> discounts) {
+        List<DiscountRule> rules = new ArrayList<>(discounts.size());
+        for (Discount discount : discounts) {
+            rules.add(discount.getRule());
+        }
+        return new DiscountRuleSet(rules);
+    }
+
+    /**
+     * Gets the item-specific rules that apply to a product.
+     *
+     * @param productOrdinal the product's ordinal
+     * @return the rules, possibly empty; must not be modified
+     */
+    DiscountRule[] rulesFor(int productOrdinal) {
+        return productOrdinal < rulesByProduct.length ? rulesByProduct[productOrdinal] : NONE;
+    }
+
+    /**
+     * Gets the cart-wide rules.
+     *
+     * @return the rules, possibly empty; must not be modified
+     */
+    DiscountRule[] cartRules() {
+        return cartRules;
+    }
+
+    /**
+     * Gets the number of rules in this set.
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+}
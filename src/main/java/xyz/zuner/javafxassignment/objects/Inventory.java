@@ -1,12 +1,29 @@
 package xyz.zuner.javafxassignment.objects;
 
+import xyz.zuner.javafxassignment.util.PrefixTrie;
+import xyz.zuner.javafxassignment.util.PricingUtil;
+import xyz.zuner.javafxassignment.util.ProductSearchIndex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * </p>
  * Manages the inventory of the store.
  * </p>
  * <br>
+ * <p>Products are added on the FX thread while the search executor and the stock journal's checkpoint thread read
+ * the indexes, so every index is guarded by a read-write lock. The lists handed out are snapshots that later
+ * additions do not change.</p>
+ * <br>
  * <p>21:198:102/02 Computers and Programming II</p>
  * <p>JavaFX Assignment</p>
  * <p>Rutgers ID: 199009651</p>
@@ -18,171 +35,227 @@ import java.util.*;
  */
 public class Inventory {
 
-    // product categories
-    private final String[] categories = {"Smartphones", "Laptops", "Smartwatches", "Cameras"};
-    private HashMap<String, List<Product>> products;
+    private static final String DEFAULT_CATALOG = "/assets/catalog.csv";
+
+    private final LinkedHashMap<String, List<Product>> products; // category -> products, in catalog order
     private Map<String, Product> productsByUPC = new HashMap<>();
+    private volatile String[] categories = new String[0];
+
+    // secondary indexes, kept up to date as products are added
+    private final List<Product> allProducts = new ArrayList<>();
+    private final TreeMap<Long, List<Product>> productsByPrice = new TreeMap<>(); // keyed by marked-up price in cents
+    private final PrefixTrie<Product> productsByName = new PrefixTrie<>();
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex(); // safe to query without the lock
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(); // guards every index above but the search index
+    private volatile Snapshot published; // copies of the product lists, dropped whenever a product is added or replaced
+
+    private StockJournal journal; // open once an external catalog is loaded, unless store.journal is false
 
 
     /**
-     * Instantiates a new Inventory object with an empty product list.
+     * Instantiates a new Inventory object from the catalog named by the {@code store.catalog} system property,
+     * or from the bundled catalog if the property is not set.
      */
     public Inventory() {
-        this.products = new HashMap<>();
-        initializeInventory();
+        this.products = new LinkedHashMap<>();
+        String catalog = System.getProperty("store.catalog");
+        if (catalog != null && !catalog.isBlank()) {
+            loadCatalog(Path.of(catalog));
+        } else {
+            loadBundledCatalog();
+        }
     }
 
     /**
-     * Initializes the full inventory.
+     * Instantiates a new Inventory object from an external catalog file.
      *
-     * @see #initializeLaptops()
-     * @see #initializeSmartphones()
+     * @param catalog path to the catalog CSV file
+     * @see CatalogLoader
      */
-    private void initializeInventory() {
-        initializeLaptops();
-        initializeSmartphones();
-        initializeSmartwatches();
-        initializeCameras();
+    public Inventory(Path catalog) {
+        this.products = new LinkedHashMap<>();
+        loadCatalog(catalog);
     }
 
     /**
-     * Helper method for initializing the laptop category of the inventory.
+     * Loads the products from an external catalog file. If a binary snapshot built from the same version of the
+     * catalog exists it is loaded instead, otherwise the catalog is parsed and a fresh snapshot is written for the
+     * next start. The snapshot lives next to the catalog unless {@code store.catalog.snapshot} names another file.
+     * The stock changes journaled since the snapshot are then replayed, and the journal is kept open for new ones
+     * unless {@code store.journal} is set to false.
+     *
+     * @param catalog path to the catalog CSV file
+     * @see CatalogSnapshot
+     * @see StockJournal
      */
-    private void initializeLaptops() {
-        Product thinkpad = new Product("Lenovo Thinkpad", "001", 999.99, 20, "Laptops");
-        thinkpad.addOption("Color", Arrays.asList("Black", "Silver", "White"));
-        thinkpad.addOption("Storage", Arrays.asList("256GB SSD", "512GB SSD", "1TB SSD"));
-
-        Product surface = new Product("Surface Pro", "005", 1999.99, 22, "Laptops");
-        surface.addOption("Color", Arrays.asList("Black", "Silver", "White"));
-        surface.addOption("Storage", Arrays.asList("256GB SSD", "512GB SSD", "1TB SSD"));
-
-        Product macbook = new Product("Macbook Pro", "006", 2999.99, 22, "Laptops");
-        macbook.addOption("Color", Arrays.asList("Silver", "White"));
-        macbook.addOption("Storage", Arrays.asList("256GB SSD", "512GB SSD", "1TB SSD"));
+    private void loadCatalog(Path catalog) {
+        Path snapshot = Path.of(System.getProperty("store.catalog.snapshot", catalog + ".snapshot"));
+        boolean journaled = Boolean.parseBoolean(System.getProperty("store.journal", "true"));
+        long sourceSize, sourceModified;
+        try {
+            sourceSize = Files.size(catalog);
+            sourceModified = Files.getLastModifiedTime(catalog).toMillis();
+        } catch (IOException e) {
+            System.err.println("Error loading catalog " + catalog + ": " + e.getMessage());
+            return;
+        }
 
-        Product macbookAir = new Product("Macbook Air", "007", 5999.99, 22, "Laptops");
-        macbookAir.addOption("Color", Arrays.asList("Black", "Silver"));
-        macbookAir.addOption("Storage", Arrays.asList("256GB SSD", "512GB SSD", "1TB SSD"));
+        long generation;
+        CatalogLoader.Result result = CatalogSnapshot.read(snapshot, sourceSize, sourceModified, this::addOrUpdateProduct);
+        if (result != null) {
+            generation = CatalogSnapshot.journalGeneration(snapshot);
+        } else {
+            try (BufferedReader reader = Files.newBufferedReader(catalog, StandardCharsets.UTF_8)) {
+                new CatalogLoader().load(reader, catalog.toString(), this::addOrUpdateProduct);
+            } catch (IOException e) {
+                System.err.println("Error loading catalog " + catalog + ": " + e.getMessage());
+                return;
+            }
+
+            try {
+                // journals written against an older version of the catalog are set aside when they are opened
+                generation = journaled ? StockJournal.firstGeneration(catalog) : 1;
+                if (generation > 1) {
+                    System.err.println("No usable snapshot for " + catalog + ", replaying the journal onto the catalog stock");
+                }
+                CatalogSnapshot.write(snapshot, getAllProducts(), stockOnHand(), sourceSize, sourceModified, generation);
+            } catch (IOException e) {
+                System.err.println("Could not write catalog snapshot " + snapshot + ": " + e.getMessage());
+                generation = 1;
+            }
+        }
 
-        Product chromebook = new Product("Chromebook", "107", 99.99, 22, "Laptops");
-        macbookAir.addOption("Color", List.of("Black"));
-        macbookAir.addOption("Storage", Arrays.asList("256GB SSD", "512GB SSD", "1TB SSD"));
+        if (journaled) {
+            try {
+                journal = StockJournal.open(this, catalog, snapshot, sourceSize, sourceModified, generation);
+            } catch (IOException e) {
+                System.err.println("Could not open the stock journal for " + catalog + ", sales will not survive a restart: " + e.getMessage());
+            }
+        }
+    }
 
-        products.put("Laptops", new ArrayList<>(Arrays.asList(thinkpad, surface, macbook, macbookAir, chromebook)));
-        addProduct(new Product[]{thinkpad, surface, macbook, macbookAir, chromebook});
+    private int[] stockOnHand() {
+        List<Product> all = getAllProducts();
+        int[] stock = new int[all.size()];
+        for (int i = 0; i < stock.length; i++) {
+            stock[i] = all.get(i).getOnHand();
+        }
+        return stock;
     }
 
     /**
-     * Helper method for initializing the smartphone category of the inventory.
+     * Streams the products from the catalog bundled with the application into the inventory.
      */
-    private void initializeSmartphones() {
-        Product iphone15 = new Product("iPhone 15", "002", 499.99, 12, "Smartphones");
-        iphone15.addOption("Color", Arrays.asList("Black", "Blue", "Red"));
-        iphone15.addOption("Storage", Arrays.asList("64GB", "128GB", "256GB"));
-
-        Product iphone15pro = new Product("iPhone 15 Pro", "008", 899.99, 12, "Smartphones");
-        iphone15pro.addOption("Color", Arrays.asList("Black", "Blue", "Red"));
-        iphone15pro.addOption("Storage", Arrays.asList("64GB", "128GB", "256GB"));
-
-        Product galaxy = new Product("Samsung Galaxy", "009", 529.99, 12, "Smartphones");
-        galaxy.addOption("Color", Arrays.asList("Black", "Blue", "Red"));
-        galaxy.addOption("Storage", Arrays.asList("64GB", "128GB", "256GB"));
-
-        Product pixel = new Product("Google Pixel", "019", 199.99, 12, "Smartphones");
-        pixel.addOption("Color", Arrays.asList("Black", "Blue", "Red"));
-        pixel.addOption("Storage", Arrays.asList("64GB", "128GB", "256GB"));
-
-        Product motorolla = new Product("Motorolla Razer", "119", 199.99, 12, "Smartphones");
-        motorolla.addOption("Color", Arrays.asList("Black", "Silver", "White"));
-        motorolla.addOption("Storage", Arrays.asList("64GB", "128GB", "256GB"));
-
-        products.put("Smartphones", new ArrayList<>(Arrays.asList(iphone15, iphone15pro, galaxy, pixel, motorolla)));
-        addProduct(new Product[]{iphone15, iphone15pro, galaxy, pixel, motorolla});
+    private void loadBundledCatalog() {
+        try (InputStream is = Inventory.class.getResourceAsStream(DEFAULT_CATALOG)) {
+            if (is == null) {
+                throw new IOException("Resource not found: " + DEFAULT_CATALOG);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            new CatalogLoader().load(reader, DEFAULT_CATALOG, this::addOrUpdateProduct);
+        } catch (IOException e) {
+            System.err.println("Error loading catalog from resource: " + e.getMessage());
+        }
     }
 
     /**
-     * Helper method for initializing the smartwatch category of the inventory.
+     * Adds a product to the inventory or updates the quantity if it already exists. Once the catalog is loaded,
+     * restocks of existing products are recorded in the {@link StockJournal}.
+     *
+     * @param product the product to add or update in the inventory
      */
-    private void initializeSmartwatches() {
-        Product appleWatch = new Product("Apple Watch", "003", 249.99, 6, "Smartwatches");
-        appleWatch.addOption("Color", Arrays.asList("Black", "Blue", "Red"));
-        appleWatch.addOption("Size", Arrays.asList("35mm", "40mm"));
-
-        Product appleWatchPro = new Product("Apple Watch Pro", "103", 449.99, 6, "Smartwatches");
-        appleWatchPro.addOption("Color", Arrays.asList("Black", "Blue", "Red"));
-        appleWatchPro.addOption("Size", Arrays.asList("35mm", "40mm"));
-
-        Product galaxyWatch = new Product("Galaxy Watch", "010", 249.99, 6, "Smartwatches");
-        galaxyWatch.addOption("Color", Arrays.asList("Black", "Blue", "Red"));
-        galaxyWatch.addOption("Size", Arrays.asList("35mm", "40mm", "45mm"));
-
-        Product samsungWatch = new Product("Samsung Watch", "110", 249.99, 6, "Smartwatches");
-        samsungWatch.addOption("Color", Arrays.asList("Black", "Blue", "Red"));
-        samsungWatch.addOption("Size", Arrays.asList("35mm", "40mm", "45mm"));
-
-        Product fitbit = new Product("Fitbit", "011", 249.99, 6, "Smartwatches");
-        fitbit.addOption("Color", Arrays.asList("Black", "Blue", "Red"));
-        fitbit.addOption("Size", Arrays.asList("35mm", "40mm", "45mm"));
-
-        products.put("Smartwatches", new ArrayList<>(Arrays.asList(appleWatch, appleWatchPro, galaxyWatch, fitbit, samsungWatch)));
-        addProduct(new Product[]{appleWatch, appleWatchPro, galaxyWatch, fitbit, samsungWatch});
+    public void addOrUpdateProduct(Product product) {
+        // check if the product already exists in the inventory
+        Product existingProduct;
+        lock.writeLock().lock();
+        try {
+            existingProduct = productsByUPC.get(product.getUPC());
+            if (existingProduct == null) {
+                // new product, add it to the inventory
+                productsByUPC.put(product.getUPC(), product);
+                index(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // restocks only touch the product's own counters, so the journal is called without holding the lock
+        if (existingProduct != null) {
+            // product exists, so update its quantity
+            int restocked = product.getStock();
+            if (journal != null) {
+                journal.recordAdjustment(existingProduct, restocked, () -> existingProduct.add(restocked));
+            } else {
+                existingProduct.add(restocked);
+            }
+        }
     }
 
     /**
-     * Helper method for initializing the camera category of the inventory.
+     * Files a product under its category, registering the category if it has not been seen before, and adds it to
+     * the secondary indexes. The caller holds the write lock.
+     *
+     * @param product the product to add
      */
-    private void initializeCameras() {
-        Product nikon = new Product("Nikon Coolpix", "004", 449.99, 25, "Cameras");
-        nikon.addOption("Color", Arrays.asList("Black", "Silver"));
-        nikon.addOption("Storage", Arrays.asList("64GB", "128GB", "256GB"));
-
-        Product dslr = new Product("Canon DSLR", "014", 449.99, 25, "Cameras");
-        dslr.addOption("Color", Arrays.asList("Black", "Gray"));
-        dslr.addOption("Storage", Arrays.asList("64GB", "128GB", "256GB"));
-
-        Product huji = new Product("HujiFilm Disposable", "015", 10.99, 25, "Cameras");
-        Product genericDispo = new Product("Disposable Camera", "016", 5.99, 25, "Cameras");
-        Product film = new Product("Film", "017", 2.99, 25, "Cameras");
-
-        products.put("Cameras", new ArrayList<>(Arrays.asList(nikon, dslr, huji, genericDispo, film)));
-        addProduct(new Product[]{nikon, dslr, huji, genericDispo, film});
+    private void index(Product product) {
+        List<Product> categoryProducts = products.get(product.getCategory());
+        if (categoryProducts == null) {
+            categoryProducts = new ArrayList<>();
+            products.put(product.getCategory(), categoryProducts);
+            categories = products.keySet().toArray(new String[0]);
+        }
+        categoryProducts.add(product);
+        allProducts.add(product);
+        productsByPrice.computeIfAbsent(PricingUtil.getMarkedUpPrice(product), price -> new ArrayList<>(1)).add(product);
+        productsByName.add(product.getName(), product);
+        searchIndex.add(product);
+        published = null;
     }
 
     /**
-     * Adds a product to the inventory or updates the quantity if it already exists.
+     * Removes a product from its category and the secondary indexes. The caller holds the write lock.
      *
-     * @param product the product to add or update in the inventory
+     * @param product the product to remove
      */
-    public void addOrUpdateProduct(Product product) {
-        // check if the product already exists in the inventory
-        Product existingProduct = productsByUPC.get(product.getUPC());
-        if (existingProduct != null) {
-            // product exists, so update its quantity
-            existingProduct.add(product.getStock());
-        } else {
-            // new product, add it to the inventory
-            productsByUPC.put(product.getUPC(), product);
+    private void unindex(Product product) {
+        products.get(product.getCategory()).remove(product);
+        allProducts.remove(product);
+        long price = PricingUtil.getMarkedUpPrice(product);
+        List<Product> samePrice = productsByPrice.get(price);
+        if (samePrice != null && samePrice.remove(product) && samePrice.isEmpty()) {
+            productsByPrice.remove(price);
         }
+        productsByName.remove(product.getName(), product);
+        searchIndex.remove(product);
+        published = null;
     }
 
     /**
-     * Adds a single product to the UPC HashMap.
+     * Adds a single product to the inventory, replacing any product with the same UPC.
      *
      * @param product the product to add
      */
     public void addProduct(Product product) {
-        productsByUPC.put(product.getUPC(), product);
+        lock.writeLock().lock();
+        try {
+            Product previous = productsByUPC.put(product.getUPC(), product);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
-     * Adds an array of products to the UPC HashMap.
+     * Adds an array of products to the inventory.
      *
      * @param products the array of products to add
      */
     public void addProduct(Product[] products) {
         for (Product product : products) {
-            productsByUPC.put(product.getUPC(), product);
+            addProduct(product);
         }
     }
 
@@ -196,20 +269,25 @@ public class Inventory {
         if (UPC == null || UPC.isEmpty()) {
             throw new IllegalArgumentException("UPC cannot be null or empty");
         }
-        return productsByUPC.getOrDefault(UPC, null);
+        lock.readLock().lock();
+        try {
+            return productsByUPC.getOrDefault(UPC, null);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Gets a list of products associated with a certain category.
      *
      * @param category the category to search
-     * @return list of Product objects if found, null otherwise
+     * @return a read-only snapshot of the category's products if found, null otherwise
      */
     public List<Product> getProductsByCategory(String category) {
         if (category == null || category.isEmpty()) {
             throw new IllegalArgumentException("Category cannot be null or empty");
         }
-        return products.getOrDefault(category, null);
+        return snapshot().byCategory().getOrDefault(category, null);
     }
 
     /**
@@ -221,29 +299,117 @@ public class Inventory {
     public void updateStock(String UPC, int quantity) {
         Product product = getProductByUPC(UPC);
         if (product != null) {
-            product.reduceStock(quantity);
+            if (journal != null) {
+                journal.recordAdjustment(product, -quantity, () -> product.reduceStock(quantity));
+            } else {
+                product.reduceStock(quantity);
+            }
         }
     }
 
     /**
-     * Retrieves all products from all categories.
+     * Retrieves all products from all categories, in the order they were added.
      *
-     * @return List<Product> a list containing all products.
+     * @return List<Product> a read-only snapshot of all products; products added later are not included.
      */
     public List<Product> getAllProducts() {
-        List<Product> allProducts = new ArrayList<>();
-        for (List<Product> productList : products.values()) {
-            allProducts.addAll(productList);
+        return snapshot().all();
+    }
+
+    /**
+     * Returns the current copies of the product lists, making new ones if a product was added since they were last
+     * made. The copies are published while the read lock is still held, so a writer cannot drop them first and have
+     * stale copies put back afterwards.
+     *
+     * @return Snapshot the product lists as they are now
+     */
+    private Snapshot snapshot() {
+        Snapshot current = published;
+        if (current != null) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            current = published;
+            if (current == null) {
+                Map<String, List<Product>> byCategory = new LinkedHashMap<>();
+                products.forEach((category, categoryProducts) -> byCategory.put(category, List.copyOf(categoryProducts)));
+                current = new Snapshot(List.copyOf(allProducts), Collections.unmodifiableMap(byCategory));
+                published = current;
+            }
+            return current;
+        } finally {
+            lock.readLock().unlock();
         }
-        return allProducts;
     }
 
     /**
-     * Returns a String array of available product categories.
+     * Gets every product whose marked-up (displayed) price falls within a range.
+     *
+     * @param min the lowest price to include, in cents
+     * @param max the highest price to include, in cents
+     * @return List<Product> products ordered by price, empty if none match
+     */
+    public List<Product> getProductsInPriceRange(long min, long max) {
+        if (min > max) {
+            return List.of();
+        }
+        List<Product> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (List<Product> samePrice : productsByPrice.subMap(min, true, max, true).values()) {
+                results.addAll(samePrice);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Gets the products with a word in their name starting with each word of the given prefix, e.g. "mac a" finds
+     * "Macbook Air".
+     *
+     * @param prefix the text typed so far, case-insensitive
+     * @param limit  the maximum number of products to return
+     * @return List<Product> matching products, empty if none match
+     */
+    public List<Product> findByNamePrefix(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return productsByName.find(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Full-text search over product names, categories, options and descriptions. Safe to call from any thread.
+     *
+     * @param query the text typed by the user
+     * @param limit the maximum number of products to return
+     * @return List<Product> matching products, best match first
+     * @see ProductSearchIndex
+     */
+    public List<Product> search(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    /**
+     * Returns a String array of available product categories, in the order they appear in the catalog.
      *
      * @return String[]
      */
     public String[] getCategories() {
         return categories;
     }
+
+    /**
+     * Read-only copies of the product lists, shared by every reader until the next product is added.
+     *
+     * @param all        every product, in the order they were added
+     * @param byCategory each category's products, in catalog order
+     */
+    private record Snapshot(List<Product> all, Map<String, List<Product>> byCategory) {
+    }
 }
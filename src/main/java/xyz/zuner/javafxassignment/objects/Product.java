@@ -1,11 +1,14 @@
 package xyz.zuner.javafxassignment.objects;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.net.URL;
+import xyz.zuner.javafxassignment.util.AssetIndex;
+import xyz.zuner.javafxassignment.util.DescriptionStore;
+import xyz.zuner.javafxassignment.util.Money;
+
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -24,13 +27,24 @@ import java.util.stream.Collectors;
  */
 public class Product {
 
+    // every UPC ever seen gets a small stable number, so products can be keyed without hashing strings
+    private static final ConcurrentHashMap<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    private final int ordinal;
     private String name;
     private String UPC; // universal product code
-    private int stock;
+    private final AtomicInteger stock; // units available to sell
+    private final AtomicInteger reserved = new AtomicInteger(); // units held by carts but not sold yet
+    private final AtomicInteger onHand; // units in the store, available or reserved; only changed by sales and restocks
     private double price; // manufacturer's price (MSRP)
+    private final long priceCents; // the same price in cents, used for all pricing math
     private HashMap<String, List<String>> options;
     private HashMap<String, String> selectedOptions;
+    private final List<String> optionOrder = new ArrayList<>(2); // option categories in the order they were added
+    private int selectionCode; // the selected options encoded as one number, see getSelectionCode()
     private String category;
+    private String imagePath; // resolved on first use
 
     /**
      * Instantiates a new product object
@@ -43,10 +57,35 @@ public class Product {
         this.name = name;
         this.UPC = UPC;
         this.price = price;
-        this.stock = initialQuantity;
+        this.priceCents = Money.ofDollars(price);
+        this.stock = new AtomicInteger(initialQuantity);
+        this.onHand = new AtomicInteger(initialQuantity);
         this.options = new HashMap<>();
         this.selectedOptions = new HashMap<>();
         this.category = category;
+        this.ordinal = ordinalOf(UPC);
+    }
+
+    /**
+     * Gets the ordinal assigned to a UPC. Ordinals are dense and stable for the lifetime of the application, so every
+     * product object created for the same UPC has the same ordinal.
+     *
+     * @param UPC the Universal Product Code
+     * @return ordinal (int)
+     */
+    public static int ordinalOf(String UPC) {
+        Integer ordinal = ordinals.get(UPC);
+        return ordinal != null ? ordinal : ordinals.computeIfAbsent(UPC, upc -> nextOrdinal.getAndIncrement());
+    }
+
+    /**
+     * Gets the ordinal of this product's UPC.
+     *
+     * @return ordinal (int)
+     * @see #ordinalOf(String)
+     */
+    public int getOrdinal() {
+        return ordinal;
     }
 
     /**
@@ -58,6 +97,16 @@ public class Product {
         return price;
     }
 
+    /**
+     * Gets the MSRP of the item in cents.
+     *
+     * @return MSRP in cents (long)
+     * @see Money
+     */
+    public long getPriceCents() {
+        return priceCents;
+    }
+
     /**
      * Gets the Universal Product Code of this item
      *
@@ -68,12 +117,33 @@ public class Product {
     }
 
     /**
-     * Gets the quantity of the item
+     * Gets the quantity of the item available to sell, not counting units reserved by carts.
      *
      * @return quantity (int)
      */
     public int getStock() {
-        return stock;
+        return stock.get();
+    }
+
+    /**
+     * Gets the quantity of the item currently reserved by carts.
+     *
+     * @return quantity (int)
+     */
+    public int getReserved() {
+        return reserved.get();
+    }
+
+    /**
+     * Gets the quantity of the item in the store, whether available or reserved by carts. Unlike the sum of
+     * {@link #getStock()} and {@link #getReserved()}, it does not change while units move in and out of carts, only
+     * when units are sold or restocked.
+     *
+     * @return quantity (int)
+     * @see StockJournal
+     */
+    public int getOnHand() {
+        return onHand.get();
     }
 
     /**
@@ -82,7 +152,8 @@ public class Product {
      * @param stock the new quantity
      */
     public void setStock(int stock) {
-        this.stock = stock;
+        int previous = this.stock.getAndSet(stock);
+        onHand.addAndGet(stock - previous);
     }
 
     /**
@@ -91,17 +162,67 @@ public class Product {
      * @param additional The amount to add to the quantity.
      */
     public void add(int additional) {
-        this.stock += additional;
+        this.stock.addAndGet(additional);
+        onHand.addAndGet(additional);
     }
 
     /**
-     * Method for checking whether the product is available or not.
+     * Method for checking whether the product is available or not. The answer may be out of date as soon as it is
+     * returned if other carts are buying the same product, use {@link #tryReserve(int)} to actually claim stock.
      *
      * @param quantity the quantity to check for
      * @return boolean
      */
     public boolean isAvailable(int quantity) {
-        return quantity <= stock;
+        return quantity <= stock.get();
+    }
+
+    /**
+     * Atomically moves units from the available stock into the reserved count. Many carts can reserve the same product
+     * at once without locking, and the available stock can never go negative.
+     *
+     * @param quantity the quantity to reserve
+     * @return true if the units were reserved, false if there was not enough stock
+     */
+    public boolean tryReserve(int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        if (!tryTake(quantity)) {
+            return false;
+        }
+        reserved.addAndGet(quantity);
+        return true;
+    }
+
+    /**
+     * Commits previously reserved units as sold.
+     *
+     * @param quantity the quantity to commit, must have been reserved with {@link #tryReserve(int)}
+     */
+    public void commit(int quantity) {
+        reserved.addAndGet(-quantity);
+        onHand.addAndGet(-quantity);
+    }
+
+    /**
+     * Undoes {@link #commit(int)}, putting sold units back into the reserved count.
+     *
+     * @param quantity the quantity to take back, must have been committed with {@link #commit(int)}
+     */
+    public void uncommit(int quantity) {
+        onHand.addAndGet(quantity);
+        reserved.addAndGet(quantity);
+    }
+
+    /**
+     * Returns previously reserved units to the available stock.
+     *
+     * @param quantity the quantity to release, must have been reserved with {@link #tryReserve(int)}
+     */
+    public void release(int quantity) {
+        reserved.addAndGet(-quantity);
+        stock.addAndGet(quantity);
     }
 
     /**
@@ -110,11 +231,10 @@ public class Product {
      * @param quantity the quantity to reduce the stock by.
      */
     public void reduceStock(int quantity) {
-        if (quantity <= stock) {
-            stock -= quantity;
-        } else {
+        if (!tryTake(quantity)) {
             throw new IllegalArgumentException("Insufficient stock for product " + name);
         }
+        onHand.addAndGet(-quantity);
     }
 
     /**
@@ -124,7 +244,29 @@ public class Product {
      *                       Can be positive (restock) or negative (sale).
      */
     public void adjustInventoryQuantity(int quantityChange) {
-        this.stock += quantityChange;
+        if (quantityChange >= 0) {
+            add(quantityChange);
+        } else {
+            reduceStock(-quantityChange);
+        }
+    }
+
+    /**
+     * Compare-and-set loop that takes units from the available stock only if enough are left.
+     *
+     * @param quantity the quantity to take
+     * @return true if the units were taken
+     */
+    private boolean tryTake(int quantity) {
+        while (true) {
+            int current = stock.get();
+            if (quantity > current) {
+                return false;
+            }
+            if (stock.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
     }
 
     /**
@@ -137,37 +279,28 @@ public class Product {
     }
 
     /**
-     * Gets the path to an image representing the product, if none is found, defaults to "No Image"
+     * Gets the path to an image representing the product, if none is found, defaults to "No Image".
+     * The path is resolved against the bundled image index once and remembered for later calls.
      *
      * @return image path (String)
      */
     public String getImagePath() {
-        String imagePath = "/assets/product_images/" + this.UPC + ".jpg";
-
-        URL imageUrl = getClass().getResource(imagePath);
-        if (imageUrl != null) {
-            return imageUrl.toExternalForm();
-        } else {
+        if (imagePath == null) {
+            String path = AssetIndex.PRODUCT_IMAGES.find(this.UPC + ".jpg");
             // fallback to a default image if the specific product image is not found
-            imageUrl = getClass().getResource("/assets/product_images/no-image-available.jpg");
-            return imageUrl != null ? imageUrl.toExternalForm() : null;
+            imagePath = path != null ? path : AssetIndex.PRODUCT_IMAGES.find("no-image-available.jpg");
         }
+        return imagePath;
     }
 
     /**
-     * Gets the product description from a text file, defaults to "No description found for this product."
+     * Gets the product description from the bundled description files, defaults to "No description found for this product."
      *
      * @return String representation of the description.
+     * @see DescriptionStore
      */
     public String getDescription() {
-        try {
-            File desc = new File("/assets/product_descriptions/" + this.UPC + "_desc.txt");
-            Scanner scanner = new Scanner(desc);
-            System.out.println(scanner.next()); // prints to console for debugging purposes
-            return scanner.next();
-        } catch (FileNotFoundException e) {
-            return "No description found for this product.";
-        }
+        return DescriptionStore.get(this.UPC);
     }
 
     /**
@@ -177,7 +310,10 @@ public class Product {
      * @param optionValues   a list of values available for this option category.
      */
     public void addOption(String optionCategory, List<String> optionValues) {
-        options.put(optionCategory, optionValues);
+        if (options.put(optionCategory, optionValues) == null) {
+            optionOrder.add(optionCategory);
+        }
+        updateSelectionCode();
     }
 
     /**
@@ -197,6 +333,50 @@ public class Product {
      */
     public void setSelectedOption(String optionCategory, String optionValue) {
         selectedOptions.put(optionCategory, optionValue);
+        updateSelectionCode();
+    }
+
+    /**
+     * Gets the currently selected value for a given option category.
+     *
+     * @param optionCategory the category of the option, e.g., "Color", "Size".
+     * @return the selected value, or null if nothing has been selected yet.
+     */
+    public String getSelectedOption(String optionCategory) {
+        return selectedOptions.get(optionCategory);
+    }
+
+    /**
+     * Gets the current option selection encoded as a single number. Each option category is a digit whose value is the
+     * position of the selected value in the category's list (0 meaning nothing selected), and whose base is the size of
+     * that list plus one, so two selections of the same product have the same code exactly when they pick the same
+     * values.
+     *
+     * @return selection code (int)
+     */
+    public int getSelectionCode() {
+        return selectionCode;
+    }
+
+    /**
+     * Gets a key identifying this product together with its current option selection, used to find cart lines.
+     *
+     * @return line key (long)
+     */
+    public long getLineKey() {
+        return ((long) ordinal << 32) | (selectionCode & 0xFFFFFFFFL);
+    }
+
+    private void updateSelectionCode() {
+        int code = 0;
+        for (String optionCategory : optionOrder) {
+            List<String> values = options.get(optionCategory);
+            String selected = selectedOptions.get(optionCategory);
+            // values outside the option list are never offered by the UI, they count as nothing selected
+            int digit = selected == null ? 0 : values.indexOf(selected) + 1;
+            code = code * (values.size() + 1) + digit;
+        }
+        selectionCode = code;
     }
 
     /**
@@ -235,7 +415,7 @@ public class Product {
                 "\nname: " + name +
                 "\nUPC: " + UPC +
                 "\nprice: " + price +
-                "\nquantity: " + stock
+                "\nquantity: " + stock.get()
                 + "\n}";
     }
 }
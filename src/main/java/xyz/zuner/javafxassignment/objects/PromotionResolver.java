@@ -0,0 +1,359 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Picks the combination of promotions that takes the most off a cart line or a cart total, under the store's
+ * {@link StackingRules}.
+ * </p>
+ * <br>
+ * <p>A discount that is not marked stackable is only ever used on its own. Stackable discounts can be combined, up
+ * to the configured number per line or per cart, and are applied one after another to the amount left by the
+ * previous one: percentage style discounts first, flat amounts last. The result never depends on the order the codes
+ * were entered in.</p>
+ * <br>
+ * <p>Percentage style discounts scale with the amount they are applied to, so only the best few of them (as many as
+ * there are slots) can be part of the best combination, and likewise for flat amounts; the rest are dropped up front.
+ * The remaining combinations are searched depth first. Each step either takes or skips the next candidate, the best
+ * saving reachable from a given (candidate, slots left, amount left) state is memoized, and a skip branch is not
+ * explored when even the best case savings of the best remaining candidates cannot beat taking the current one.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Cart#getPromotions()
+ * @see PromotionResult
+ */
+public final class PromotionResolver {
+
+    // percentage style discounts are applied before flat amounts, so a flat amount is never scaled down
+    private static final Comparator<DiscountRule> APPLICATION_ORDER = Comparator
+            .comparing((DiscountRule rule) -> rule.getDiscount().getType() == Discount.DiscountType.FLAT)
+            .thenComparing(rule -> rule.getDiscount().getCode());
+
+    private static final PromotionResolver shared = new PromotionResolver(StackingRules.fromSystemProperties());
+
+    private final StackingRules rules;
+
+    /**
+     * Creates a resolver.
+     *
+     * @param rules the stacking rules to enforce
+     */
+    public PromotionResolver(StackingRules rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Gets the resolver configured from the system properties.
+     *
+     * @return PromotionResolver
+     * @see StackingRules#fromSystemProperties()
+     */
+    public static PromotionResolver getShared() {
+        return shared;
+    }
+
+    /**
+     * Gets the stacking rules this resolver enforces.
+     *
+     * @return StackingRules
+     */
+    public StackingRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Finds the best item discounts for a cart line.
+     *
+     * @param candidates the item-specific rules that apply to the line's product
+     * @param amount     the line subtotal, in cents
+     * @param quantity   the line quantity
+     * @return the best plan, {@link Plan#NONE} if nothing applies
+     */
+    public Plan resolveLine(DiscountRule[] candidates, long amount, int quantity) {
+        return resolve(candidates, amount, quantity, rules.getMaxPerLine());
+    }
+
+    /**
+     * Finds the best cart-wide discounts for a cart total.
+     *
+     * @param candidates the cart-wide rules
+     * @param amount     the total they apply to, in cents
+     * @return the best plan, {@link Plan#NONE} if nothing applies
+     */
+    public Plan resolveCart(DiscountRule[] candidates, long amount) {
+        return resolve(candidates, amount, 1, rules.getMaxCartWide());
+    }
+
+    private Plan resolve(DiscountRule[] candidates, long amount, int quantity, int limit) {
+        if (candidates.length == 0 || amount <= 0 || limit <= 0) {
+            return Plan.NONE;
+        }
+
+        // any single discount is always allowed
+        Plan best = Plan.NONE;
+        List<DiscountRule> stackable = new ArrayList<>(candidates.length);
+        for (DiscountRule rule : candidates) {
+            long off = amountOff(rule, amount, quantity);
+            if (off > best.getAmountOff()) {
+                best = new Plan(rule, off, Plan.NONE);
+            }
+            if (rule.getDiscount().isStackable() && off > 0) {
+                stackable.add(rule);
+            }
+        }
+        if (limit == 1 || stackable.size() < 2) {
+            return best;
+        }
+
+        // percentage style savings scale with the amount and commute, so with n slots only the n best of them can be
+        // in the best combination, and the same goes for flat amounts; everything else is pruned before searching
+        stackable.sort(Comparator.comparingLong((DiscountRule rule) -> amountOff(rule, amount, quantity)).reversed());
+        List<DiscountRule> kept = new ArrayList<>(2 * limit);
+        int flat = 0;
+        int scaled = 0;
+        for (DiscountRule rule : stackable) {
+            if (rule.getDiscount().getType() == Discount.DiscountType.FLAT ? flat++ < limit : scaled++ < limit) {
+                kept.add(rule);
+            }
+        }
+        stackable = kept;
+
+        stackable.sort(APPLICATION_ORDER);
+        Plan combined = new Search(stackable.toArray(new DiscountRule[0]), amount, quantity, limit).best(0, limit, amount);
+        return combined.getAmountOff() > best.getAmountOff() ? combined : best;
+    }
+
+    /**
+     * Amount a rule takes off, never more than the amount itself and never negative.
+     */
+    private static long amountOff(DiscountRule rule, long amount, int quantity) {
+        return Math.max(0, Math.min(amount, rule.amountOff(amount, quantity)));
+    }
+
+    /**
+     * Memoized take-or-skip search over stackable candidates in application order.
+     */
+    private static final class Search {
+
+        private final DiscountRule[] candidates;
+        private final int quantity;
+        private final long[][] bound; // bound[i][s] = best case saving of the s best candidates from i on
+        private final Map<State, Plan> memo = new HashMap<>();
+
+        Search(DiscountRule[] candidates, long amount, int quantity, int limit) {
+            this.candidates = candidates;
+            this.quantity = quantity;
+            // a discount never takes more off a smaller amount, so its saving on the full amount bounds it
+            int slots = Math.min(limit, candidates.length);
+            this.bound = new long[candidates.length + 1][slots + 1];
+            long[] largest = new long[slots]; // largest savings seen so far, in descending order
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                long off = amountOff(candidates[i], amount, quantity);
+                for (int j = 0; j < slots; j++) {
+                    if (off > largest[j]) {
+                        long swap = largest[j];
+                        largest[j] = off;
+                        off = swap;
+                    }
+                }
+                for (int j = 1; j <= slots; j++) {
+                    bound[i][j] = bound[i][j - 1] + largest[j - 1];
+                }
+            }
+        }
+
+        Plan best(int index, int slots, long amount) {
+            if (index == candidates.length || slots == 0 || amount <= 0) {
+                return Plan.NONE;
+            }
+            slots = Math.min(slots, bound[index].length - 1);
+            if (bound[index][slots] == 0) {
+                return Plan.NONE;
+            }
+            State state = new State(index, slots, amount);
+            Plan cached = memo.get(state);
+            if (cached != null) {
+                return cached;
+            }
+
+            Plan result = Plan.NONE;
+            long off = amountOff(candidates[index], amount, quantity);
+            if (off > 0) {
+                Plan rest = best(index + 1, slots - 1, amount - off);
+                result = new Plan(candidates[index], off + rest.getAmountOff(), rest);
+            }
+            if (bound[index + 1][slots] > result.getAmountOff()) {
+                Plan skip = best(index + 1, slots, amount);
+                if (skip.getAmountOff() > result.getAmountOff()) {
+                    result = skip;
+                }
+            }
+            memo.put(state, result);
+            return result;
+        }
+    }
+
+    private record State(int index, int slots, long amount) {
+    }
+
+    /**
+     * <p>
+     * An immutable sequence of discounts to apply, in order, and the total they take off.
+     * </p>
+     */
+    public static final class Plan {
+
+        public static final Plan NONE = new Plan(null, 0, null);
+
+        private final DiscountRule rule;
+        private final long amountOff;
+        private final Plan next;
+
+        private Plan(DiscountRule rule, long amountOff, Plan next) {
+            this.rule = rule;
+            this.amountOff = amountOff;
+            this.next = next;
+        }
+
+        /**
+         * Gets the total amount this plan takes off.
+         *
+         * @return cents (long)
+         */
+        public long getAmountOff() {
+            return amountOff;
+        }
+
+        /**
+         * Checks if the plan applies no discount.
+         *
+         * @return boolean
+         */
+        public boolean isEmpty() {
+            return rule == null;
+        }
+
+        /**
+         * Gets the first discount of the plan, for walking it without building a list.
+         *
+         * @return Discount, null if the plan is empty
+         */
+        Discount getDiscount() {
+            return rule == null ? null : rule.getDiscount();
+        }
+
+        /**
+         * Gets the rest of the plan after its first discount.
+         *
+         * @return Plan, {@link #NONE} if there is nothing after the first discount
+         */
+        Plan getNext() {
+            return next == null ? NONE : next;
+        }
+
+        /**
+         * Gets the discounts in the order they are applied.
+         *
+         * @return unmodifiable List of Discount
+         */
+        public List<Discount> getDiscounts() {
+            if (rule == null) {
+                return List.of();
+            }
+            List<Discount> discounts = new ArrayList<>(2);
+            for (Plan plan = this; plan != null && plan.rule != null; plan = plan.next) {
+                discounts.add(plan.rule.getDiscount());
+            }
+            return Collections.unmodifiableList(discounts);
+        }
+
+        @Override
+        public String toString() {
+            return "Plan{" + Arrays.toString(getDiscounts().stream().map(Discount::getCode).toArray()) + ", amountOff=" + amountOff + '}';
+        }
+    }
+
+    /**
+     * <p>
+     * How promotions may be combined. Configured with the system properties
+     * {@code store.promotions.maxPerLine} (default 1), {@code store.promotions.maxCartWide} (default 1) and
+     * {@code store.promotions.combineItemAndCart} (default true).
+     * </p>
+     */
+    public static final class StackingRules {
+
+        private final int maxPerLine;
+        private final int maxCartWide;
+        private final boolean combineItemAndCart;
+
+        /**
+         * Creates stacking rules.
+         *
+         * @param maxPerLine         most item discounts on one cart line
+         * @param maxCartWide        most cart-wide discounts on one cart
+         * @param combineItemAndCart whether cart-wide discounts can be used together with item discounts
+         */
+        public StackingRules(int maxPerLine, int maxCartWide, boolean combineItemAndCart) {
+            if (maxPerLine < 0 || maxCartWide < 0) {
+                throw new IllegalArgumentException("Discount limits cannot be negative");
+            }
+            this.maxPerLine = maxPerLine;
+            this.maxCartWide = maxCartWide;
+            this.combineItemAndCart = combineItemAndCart;
+        }
+
+        /**
+         * Reads the stacking rules from the system properties.
+         *
+         * @return StackingRules
+         */
+        public static StackingRules fromSystemProperties() {
+            return new StackingRules(
+                    Integer.getInteger("store.promotions.maxPerLine", 1),
+                    Integer.getInteger("store.promotions.maxCartWide", 1),
+                    Boolean.parseBoolean(System.getProperty("store.promotions.combineItemAndCart", "true"))
+            );
+        }
+
+        /**
+         * Gets the most item discounts allowed on one cart line.
+         *
+         * @return int
+         */
+        public int getMaxPerLine() {
+            return maxPerLine;
+        }
+
+        /**
+         * Gets the most cart-wide discounts allowed on one cart.
+         *
+         * @return int
+         */
+        public int getMaxCartWide() {
+            return maxCartWide;
+        }
+
+        /**
+         * Checks whether cart-wide discounts can be used together with item discounts.
+         *
+         * @return boolean
+         */
+        public boolean isCombineItemAndCart() {
+            return combineItemAndCart;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * The promotions chosen for a cart by the {@link PromotionResolver}, attributed to the lines they apply to.
+ * </p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Cart#getPromotions()
+ * @see Transaction
+ */
+public final class PromotionResult {
+
+    private final Map<CartItem, PromotionResolver.Plan> lines;
+    private final PromotionResolver.Plan cartPlan;
+
+    PromotionResult(Map<CartItem, PromotionResolver.Plan> lines, PromotionResolver.Plan cartPlan) {
+        this.lines = Collections.unmodifiableMap(new IdentityHashMap<>(lines));
+        this.cartPlan = cartPlan;
+    }
+
+    /**
+     * Gets the item discounts applied to a line.
+     *
+     * @param item the cart line
+     * @return the line's plan, {@link PromotionResolver.Plan#NONE} if no item discount applies
+     */
+    public PromotionResolver.Plan forLine(CartItem item) {
+        return lines.getOrDefault(item, PromotionResolver.Plan.NONE);
+    }
+
+    /**
+     * Gets the price of a line after its item discounts.
+     *
+     * @param item the cart line
+     * @return cents (long)
+     */
+    public long getLinePrice(CartItem item) {
+        return item.getSubtotal() - forLine(item).getAmountOff();
+    }
+
+    /**
+     * Gets the cart-wide discounts applied, in the order they were applied.
+     *
+     * @return unmodifiable List of Discount
+     */
+    public List<Discount> getCartDiscounts() {
+        return cartPlan.getDiscounts();
+    }
+
+    /**
+     * Gets the amount taken off by cart-wide discounts.
+     *
+     * @return cents (long)
+     */
+    public long getCartAmountOff() {
+        return cartPlan.getAmountOff();
+    }
+
+    /**
+     * Gets every discount that takes something off, each listed once however many lines it applies to.
+     *
+     * @return unmodifiable Collection of Discount
+     */
+    public Collection<Discount> getDiscountsUsed() {
+        Map<String, Discount> used = new LinkedHashMap<>();
+        for (PromotionResolver.Plan plan : lines.values()) {
+            for (Discount discount : plan.getDiscounts()) {
+                used.putIfAbsent(discount.getCode(), discount);
+            }
+        }
+        for (Discount discount : cartPlan.getDiscounts()) {
+            used.putIfAbsent(discount.getCode(), discount);
+        }
+        return Collections.unmodifiableCollection(used.values());
+    }
+
+    /**
+     * Gets the amount taken off by item discounts on every line.
+     *
+     * @return cents (long)
+     */
+    public long getItemAmountOff() {
+        long total = 0;
+        for (PromotionResolver.Plan plan : lines.values()) {
+            total += plan.getAmountOff();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,430 @@
+package xyz.zuner.javafxassignment.objects;
+
+import xyz.zuner.javafxassignment.util.Money;
+import xyz.zuner.javafxassignment.util.PricingUtil;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>
+ * Renders the receipt for a {@link Transaction} from a layout template that is parsed once, up front.
+ * </p>
+ * <br>
+ * <p>A template is plain text with fields in braces. {@code {id}}, {@code {timestamp}}, {@code {codes}},
+ * {@code {subtotal}}, {@code {tax}}, {@code {discount}} and {@code {total}} are replaced in place. {@code {items}},
+ * {@code {cartDiscounts}} and {@code {rule}} each take a line of their own and expand to the item lines, the
+ * cart-wide discounts and a horizontal rule. A {@code |} splits a line into a label and a value. In plain text the
+ * values line up a fixed distance after the labels; on a fixed-width printer they are right-aligned to the paper
+ * width and long item names are cut to fit.</p>
+ * <br>
+ * <p>Rendering appends straight into a caller's {@link StringBuilder} or {@link ByteBuffer}. Amounts and the
+ * timestamp are written digit by digit, so a receipt allocates next to nothing besides the buffer itself, which is
+ * reused per thread by {@link #render(Transaction)}.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Transaction#processTransaction()
+ */
+public final class ReceiptRenderer {
+
+    public static final String DEFAULT_TEMPLATE = """
+            Z's Discount Electronics!
+            Transaction ID: {id}
+            Timestamp: {timestamp}
+
+            Items Purchased:
+            {items}
+
+            Discounts:
+            {codes}
+            {cartDiscounts}
+
+            {rule}
+            Subtotal:|{subtotal}
+            Tax:|{tax}
+            Total Discount:|-{discount}
+            Total:|{total}
+            {rule}
+
+            !!!THANK YOU!!!
+            """;
+
+    private static final int LABEL_WIDTH = 21; // plain text values start this far into the line
+    private static final int PLAIN_RULE_WIDTH = 34;
+    private static final int MAX_KEPT_BUFFER = 1 << 20; // per-thread buffers larger than this are not kept
+
+    private static final ReceiptRenderer plainText = new ReceiptRenderer(DEFAULT_TEMPLATE, 0);
+    private static final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private final Line[] lines;
+    private final int width;
+
+    /**
+     * Compiles a layout template.
+     *
+     * @param template the template, see the class description for its fields
+     * @param width    the paper width in characters for a fixed-width printer, or 0 for plain text
+     * @throws IllegalArgumentException if the template names an unknown field or puts a block field next to text
+     */
+    public ReceiptRenderer(String template, int width) {
+        if (width < 0) {
+            throw new IllegalArgumentException("Width cannot be negative");
+        }
+        this.width = width;
+        String[] rows = template.split("\n", -1);
+        int count = template.endsWith("\n") ? rows.length - 1 : rows.length;
+        this.lines = new Line[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = Line.compile(rows[i]);
+        }
+    }
+
+    /**
+     * Gets the renderer for plain text receipts in the default layout.
+     *
+     * @return ReceiptRenderer
+     */
+    public static ReceiptRenderer plainText() {
+        return plainText;
+    }
+
+    /**
+     * Creates a renderer for a fixed-width receipt printer in the default layout.
+     *
+     * @param width the paper width in characters, e.g. 42
+     * @return ReceiptRenderer
+     */
+    public static ReceiptRenderer fixedWidth(int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Width must be positive");
+        }
+        return new ReceiptRenderer(DEFAULT_TEMPLATE, width);
+    }
+
+    /**
+     * Renders a receipt to a String, using a buffer kept for the calling thread.
+     *
+     * @param transaction the transaction
+     * @return the receipt text
+     */
+    public String render(Transaction transaction) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        String receipt = render(transaction, buffer).toString();
+        if (buffer.capacity() > MAX_KEPT_BUFFER) {
+            buffers.remove(); // don't hold on to the buffer of an unusually large order
+        }
+        return receipt;
+    }
+
+    /**
+     * Renders a receipt into a printer buffer as single-byte characters. Characters outside ASCII are written as
+     * {@code ?}.
+     *
+     * @param transaction the transaction
+     * @param out         the buffer to write to
+     * @return the buffer
+     * @throws BufferOverflowException if the receipt does not fit, nothing is written then
+     */
+    public ByteBuffer render(Transaction transaction, ByteBuffer out) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        render(transaction, buffer);
+        int length = buffer.length();
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (out.hasArray()) {
+            // straight into the backing array, a put per byte is several times slower
+            byte[] bytes = out.array();
+            int offset = out.arrayOffset() + out.position();
+            for (int i = 0; i < length; i++) {
+                char c = buffer.charAt(i);
+                bytes[offset + i] = c < 0x80 ? (byte) c : (byte) '?';
+            }
+            out.position(out.position() + length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                char c = buffer.charAt(i);
+                out.put(c < 0x80 ? (byte) c : (byte) '?');
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Renders a receipt, appending it to a builder.
+     *
+     * @param transaction the transaction
+     * @param out         the builder to append to
+     * @return the builder
+     */
+    public StringBuilder render(Transaction transaction, StringBuilder out) {
+        for (Line line : lines) {
+            if (line.block != null) {
+                renderBlock(line.block, transaction, out);
+                continue;
+            }
+            int start = out.length();
+            appendSegments(line.label, transaction, out);
+            if (line.value != null) {
+                pad(out, start, measure(line.value, transaction));
+                appendSegments(line.value, transaction, out);
+            }
+            out.append('\n');
+        }
+        return out;
+    }
+
+    private void renderBlock(Field block, Transaction transaction, StringBuilder out) {
+        switch (block) {
+            case ITEMS -> renderItems(transaction, out);
+            case CART_DISCOUNTS -> renderCartDiscounts(transaction.getPromotions(), out);
+            case RULE -> {
+                for (int i = width > 0 ? width : PLAIN_RULE_WIDTH; i > 0; i--) {
+                    out.append('-');
+                }
+                out.append('\n');
+            }
+            default -> throw new IllegalStateException("Not a block field: " + block);
+        }
+    }
+
+    private void renderItems(Transaction transaction, StringBuilder out) {
+        PromotionResult promotions = transaction.getPromotions();
+        List<CartItem> items = transaction.getItems();
+        for (int i = 0, size = items.size(); i < size; i++) {
+            CartItem item = items.get(i);
+            PromotionResolver.Plan plan = promotions.forLine(item);
+            if (width == 0) {
+                out.append("- ").append(item.getProduct().getName())
+                        .append('(').append(item.getSelectedOptions()).append(')')
+                        .append(" x ").append(item.getQuantity()).append(": ");
+                Money.format(out, promotions.getLinePrice(item)).append('\n');
+                for (PromotionResolver.Plan step = plan; !step.isEmpty(); step = step.getNext()) {
+                    out.append("    ").append(step.getDiscount().getCode()).append('\n');
+                }
+                continue;
+            }
+
+            appendCut(out, item.getProduct().getName(), width).append('\n');
+            if (!item.getSelectedOptions().isEmpty()) {
+                out.append("  ");
+                appendCut(out, item.getSelectedOptions(), width - 2).append('\n');
+            }
+            int start = out.length();
+            out.append("  ").append(item.getQuantity()).append(" x ");
+            Money.format(out, PricingUtil.getMarkedUpPrice(item.getProduct()));
+            pad(out, start, Money.formattedLength(item.getSubtotal()));
+            Money.format(out, item.getSubtotal()).append('\n');
+            if (!plan.isEmpty()) {
+                start = out.length();
+                out.append("  ");
+                for (PromotionResolver.Plan step = plan; !step.isEmpty(); step = step.getNext()) {
+                    out.append(step.getDiscount().getCode()).append(' ');
+                }
+                out.setLength(out.length() - 1);
+                pad(out, start, 1 + Money.formattedLength(plan.getAmountOff()));
+                Money.format(out.append('-'), plan.getAmountOff()).append('\n');
+            }
+        }
+    }
+
+    private void renderCartDiscounts(PromotionResult promotions, StringBuilder out) {
+        long amountOff = promotions.getCartAmountOff();
+        if (amountOff <= 0) {
+            return;
+        }
+        int start = out.length();
+        out.append("Cart-wide:");
+        List<Discount> discounts = promotions.getCartDiscounts();
+        for (int i = 0, size = discounts.size(); i < size; i++) {
+            out.append(' ').append(discounts.get(i).getCode());
+        }
+        if (width == 0) {
+            out.append(' ');
+        } else {
+            pad(out, start, 1 + Money.formattedLength(amountOff));
+        }
+        Money.format(out.append('-'), amountOff).append('\n');
+    }
+
+    /**
+     * Pads the current line so a value of the given length comes next: a fixed distance after the start of the line
+     * in plain text, against the right edge on a fixed-width printer. Always leaves at least one space.
+     */
+    private void pad(StringBuilder out, int lineStart, int valueLength) {
+        int used = out.length() - lineStart;
+        int target = width == 0 ? LABEL_WIDTH : width - valueLength;
+        do {
+            out.append(' ');
+        } while (++used < target);
+    }
+
+    private static StringBuilder appendCut(StringBuilder out, String text, int max) {
+        return text.length() <= max ? out.append(text) : out.append(text, 0, Math.max(0, max));
+    }
+
+    private static void appendSegments(Object[] segments, Transaction transaction, StringBuilder out) {
+        for (Object segment : segments) {
+            if (segment instanceof String literal) {
+                out.append(literal);
+            } else {
+                appendField((Field) segment, transaction, out);
+            }
+        }
+    }
+
+    private static void appendField(Field field, Transaction transaction, StringBuilder out) {
+        switch (field) {
+            case ID -> out.append(transaction.getId());
+            case TIMESTAMP -> appendTimestamp(transaction.getTimestamp(), out);
+            case CODES -> out.append(transaction.getAppliedDiscounts());
+            case SUBTOTAL -> Money.format(out, transaction.getSubtotal());
+            case TAX -> Money.format(out, transaction.getTotalTax());
+            case DISCOUNT -> Money.format(out, transaction.getTotalDiscount());
+            case TOTAL -> Money.format(out, transaction.getTotal());
+            default -> throw new IllegalStateException("Not an inline field: " + field);
+        }
+    }
+
+    private static int measure(Object[] segments, Transaction transaction) {
+        int length = 0;
+        for (Object segment : segments) {
+            if (segment instanceof String literal) {
+                length += literal.length();
+            } else {
+                length += switch ((Field) segment) {
+                    case ID -> transaction.getId().length();
+                    case TIMESTAMP -> 19;
+                    case CODES -> transaction.getAppliedDiscounts().length();
+                    case SUBTOTAL -> Money.formattedLength(transaction.getSubtotal());
+                    case TAX -> Money.formattedLength(transaction.getTotalTax());
+                    case DISCOUNT -> Money.formattedLength(transaction.getTotalDiscount());
+                    case TOTAL -> Money.formattedLength(transaction.getTotal());
+                    default -> 0;
+                };
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Appends a timestamp as {@code yyyy-MM-dd HH:mm:ss}.
+     */
+    private static void appendTimestamp(LocalDateTime time, StringBuilder out) {
+        out.append(time.getYear()).append('-');
+        twoDigits(out, time.getMonthValue()).append('-');
+        twoDigits(out, time.getDayOfMonth()).append(' ');
+        twoDigits(out, time.getHour()).append(':');
+        twoDigits(out, time.getMinute()).append(':');
+        twoDigits(out, time.getSecond());
+    }
+
+    private static StringBuilder twoDigits(StringBuilder out, int value) {
+        return out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * A template line: either a block field on its own, or a label with an optional value, each a sequence of
+     * literal Strings and inline Fields.
+     */
+    private static final class Line {
+
+        final Field block;
+        final Object[] label;
+        final Object[] value;
+
+        private Line(Field block, Object[] label, Object[] value) {
+            this.block = block;
+            this.label = label;
+            this.value = value;
+        }
+
+        static Line compile(String row) {
+            String trimmed = row.trim();
+            if (trimmed.startsWith("{") && trimmed.endsWith("}") && trimmed.indexOf('{', 1) < 0) {
+                Field field = Field.of(trimmed.substring(1, trimmed.length() - 1));
+                if (field.block) {
+                    return new Line(field, null, null);
+                }
+            }
+            int split = row.indexOf('|');
+            if (split < 0) {
+                return new Line(null, segments(row), null);
+            }
+            return new Line(null, segments(row.substring(0, split)), segments(row.substring(split + 1)));
+        }
+
+        private static Object[] segments(String text) {
+            List<Object> segments = new ArrayList<>();
+            int position = 0;
+            while (position < text.length()) {
+                int open = text.indexOf('{', position);
+                if (open < 0) {
+                    segments.add(text.substring(position));
+                    break;
+                }
+                int close = text.indexOf('}', open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed field in receipt template line: " + text);
+                }
+                if (open > position) {
+                    segments.add(text.substring(position, open));
+                }
+                Field field = Field.of(text.substring(open + 1, close));
+                if (field.block) {
+                    throw new IllegalArgumentException("{" + field.name + "} must be on a line of its own");
+                }
+                segments.add(field);
+                position = close + 1;
+            }
+            return segments.toArray();
+        }
+    }
+
+    /**
+     * The fields a template can use.
+     */
+    private enum Field {
+        ID("id", false),
+        TIMESTAMP("timestamp", false),
+        CODES("codes", false),
+        SUBTOTAL("subtotal", false),
+        TAX("tax", false),
+        DISCOUNT("discount", false),
+        TOTAL("total", false),
+        ITEMS("items", true),
+        CART_DISCOUNTS("cartDiscounts", true),
+        RULE("rule", true);
+
+        final String name;
+        final boolean block;
+
+        Field(String name, boolean block) {
+            this.name = name;
+            this.block = block;
+        }
+
+        static Field of(String name) {
+            for (Field field : values()) {
+                if (field.name.equals(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown receipt field {" + name + "}, expected one of "
+                    + List.of(values()).toString().toLowerCase(Locale.ROOT));
+        }
+    }
+}
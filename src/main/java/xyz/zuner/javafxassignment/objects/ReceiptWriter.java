@@ -0,0 +1,337 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Saves receipts in the background, so checkout never waits on the disk.
+ * </p>
+ * <br>
+ * <p>Receipts are handed over through a queue and a single writer thread appends them, a batch at a time, to
+ * a log of numbered segment files ({@code receipts-00000001.log}, ...). A new segment is started once the current one
+ * reaches its size limit; existing segments are never rewritten. Each receipt in a segment starts with a header line
+ * {@code === <id> <timestamp> <bytes>} followed by the receipt text, so the log can be read back or split up later.</p>
+ * <br>
+ * <p>The queue grows as needed, so {@link #submit(String, LocalDateTime, String)} never waits and never drops a
+ * receipt. If a batch cannot be written, whatever part of it reached the segment is cut off again, the segment is
+ * closed and the batch is kept and retried after a pause in a fresh segment, together with the receipts queued in the
+ * meantime.</p>
+ * <br>
+ * <p>Configured with the system properties {@code store.receipts.dir} (default {@code ~/javafx-receipts}),
+ * {@code store.receipts.segmentBytes} (default 16 MiB), {@code store.receipts.fsync} ({@code NEVER},
+ * {@code INTERVAL} or {@code BATCH}, default {@code INTERVAL}) and {@code store.receipts.fsyncMillis}
+ * (default 1000).</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Transaction#processTransaction()
+ */
+public class ReceiptWriter implements AutoCloseable {
+
+    private static final int MAX_BATCH = 256; // most receipts taken from the queue at once
+    private static final long RETRY_MILLIS = 1000; // pause before writing again after a failed write
+    private static final String SEGMENT_PREFIX = "receipts-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final Receipt CLOSE = new Receipt(null, null, null); // tells the writer to finish up
+
+    private static ReceiptWriter shared; // guarded by ReceiptWriter.class
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final FsyncPolicy fsync;
+    private final long fsyncMillis;
+    private final BlockingQueue<Receipt> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile int pendingRetry; // receipts taken from the queue but not written yet
+
+    // only touched by the writer thread
+    private final List<Receipt> batch = new ArrayList<>(MAX_BATCH); // kept until it is written
+    private long retryAt; // when a failed batch is written again
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private FileChannel channel;
+    private int segment;
+    private long segmentSize;
+    private boolean unforced; // written since the last fsync
+    private long lastForce;
+
+    /**
+     * Creates a receipt writer and starts its writer thread.
+     *
+     * @param directory    where the segment files are kept
+     * @param segmentBytes size at which a new segment is started
+     * @param fsync        when written receipts are forced to the disk
+     * @param fsyncMillis  longest time between forces under {@link FsyncPolicy#INTERVAL}
+     */
+    public ReceiptWriter(Path directory, long segmentBytes, FsyncPolicy fsync, long fsyncMillis) {
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.fsyncMillis = fsyncMillis;
+        this.writer = new Thread(this::run, "receipt-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Gets the receipt writer configured from the system properties, creating it on first use. Receipts still queued
+     * when the application exits are written out by a shutdown hook.
+     *
+     * @return ReceiptWriter
+     */
+    public static synchronized ReceiptWriter getShared() {
+        if (shared == null) {
+            shared = new ReceiptWriter(
+                    Path.of(System.getProperty("store.receipts.dir", Path.of(System.getProperty("user.home"), "javafx-receipts").toString())),
+                    Long.getLong("store.receipts.segmentBytes", 16L << 20),
+                    FsyncPolicy.valueOf(System.getProperty("store.receipts.fsync", FsyncPolicy.INTERVAL.name())),
+                    Long.getLong("store.receipts.fsyncMillis", 1000)
+            );
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "receipt-writer-shutdown"));
+        }
+        return shared;
+    }
+
+    /**
+     * Queues a receipt to be saved. Never waits, the queue grows as needed.
+     *
+     * @param id        the transaction id
+     * @param timestamp the time of the transaction
+     * @param text      the receipt text
+     * @return true if the receipt was queued, false if the writer is closed
+     */
+    public boolean submit(String id, LocalDateTime timestamp, String text) {
+        if (closed) {
+            return false;
+        }
+        return queue.offer(new Receipt(id, timestamp, text));
+    }
+
+    /**
+     * Gets the number of receipts waiting to be written, including a batch waiting to be retried.
+     *
+     * @return int
+     */
+    public int getPending() {
+        return queue.size() + pendingRetry;
+    }
+
+    /**
+     * Stops accepting receipts and writes out the ones already queued, forcing them to the disk unless the policy is
+     * {@link FsyncPolicy#NEVER}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(CLOSE);
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        boolean closing = false;
+        while (!closing) {
+            Receipt first;
+            try {
+                if (!batch.isEmpty()) { // a failed batch, wait out the pause while collecting new receipts
+                    first = queue.poll(Math.max(1, retryAt - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                } else if (unforced && fsync == FsyncPolicy.INTERVAL) {
+                    first = queue.poll(Math.max(1, lastForce + fsyncMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                } else {
+                    first = queue.take();
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                closing = batch.remove(CLOSE);
+                if (closing) {
+                    queue.drainTo(batch); // anything that got in just before the writer closed
+                }
+            }
+            if (!batch.isEmpty() && (closing || System.currentTimeMillis() >= retryAt)) {
+                if (write(batch)) {
+                    batch.clear();
+                }
+            }
+            pendingRetry = batch.size();
+            if (unforced && (fsync == FsyncPolicy.BATCH
+                    || (fsync == FsyncPolicy.INTERVAL && System.currentTimeMillis() - lastForce >= fsyncMillis))) {
+                force();
+            }
+        }
+        if (!batch.isEmpty()) {
+            System.err.println("Could not save " + batch.size() + " receipts to " + directory + " before closing");
+        }
+        closeSegment();
+    }
+
+    /**
+     * Appends a batch of receipts to the current segment. If that fails, the part that was written is cut off again
+     * and the segment is closed, so the batch can be written again whole.
+     *
+     * @return true if the batch was written
+     */
+    private boolean write(List<Receipt> receipts) {
+        buffer.clear();
+        for (Receipt receipt : receipts) {
+            byte[] text = receipt.text().getBytes(StandardCharsets.UTF_8);
+            byte[] header = ("=== " + receipt.id() + " " + receipt.timestamp() + " " + text.length + "\n").getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(header.length + text.length + 1);
+            buffer.put(header).put(text).put((byte) '\n');
+        }
+        buffer.flip();
+
+        long start = -1;
+        try {
+            if (channel == null || (segmentSize > 0 && segmentSize + buffer.remaining() > segmentBytes)) {
+                openNextSegment();
+            }
+            start = segmentSize;
+            while (buffer.hasRemaining()) {
+                segmentSize += channel.write(buffer);
+            }
+            unforced = true;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving " + receipts.size() + " receipts to " + directory + ", retrying: " + e.getMessage());
+            if (start >= 0 && segmentSize > start) {
+                try {
+                    channel.truncate(start);
+                } catch (IOException truncateFailed) {
+                    System.err.println("Error cutting off a partly saved receipt in " + directory + ": " + truncateFailed.getMessage());
+                }
+            }
+            closeSegment(); // start a fresh segment on the next attempt
+            retryAt = System.currentTimeMillis() + RETRY_MILLIS;
+            return false;
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (buffer.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+            buffer.flip();
+            buffer = larger.put(buffer);
+        }
+    }
+
+    /**
+     * Closes the current segment, if any, and opens the next one. On the first call it carries on from the last
+     * segment a previous run left behind.
+     */
+    private void openNextSegment() throws IOException {
+        if (channel == null && segment == 0) {
+            Files.createDirectories(directory);
+            segment = lastSegment();
+            if (segment > 0) {
+                channel = open(segment);
+                segmentSize = channel.size();
+                if (segmentSize < segmentBytes) {
+                    return;
+                }
+            }
+        }
+        closeSegment();
+        channel = open(++segment);
+        segmentSize = channel.size();
+    }
+
+    private FileChannel open(int number) throws IOException {
+        Path file = directory.resolve(SEGMENT_PREFIX + String.format("%08d", number) + SEGMENT_SUFFIX);
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private int lastSegment() throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    last = Math.max(last, Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return last;
+    }
+
+    private void force() {
+        try {
+            if (channel != null) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            System.err.println("Error syncing receipts to " + directory + ": " + e.getMessage());
+        }
+        unforced = false;
+        lastForce = System.currentTimeMillis();
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        if (unforced && fsync != FsyncPolicy.NEVER) {
+            force();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing receipt segment: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    private record Receipt(String id, LocalDateTime timestamp, String text) {
+    }
+
+    /**
+     * When written receipts are forced to the disk.
+     */
+    public enum FsyncPolicy {
+        /**
+         * Leave it to the operating system. Fastest, a crash can lose the last few seconds of receipts.
+         */
+        NEVER,
+        /**
+         * At most once per configured interval, and whenever a segment is closed.
+         */
+        INTERVAL,
+        /**
+         * After every batch, before the writer takes the next one. Nothing is lost in a crash once it is written.
+         */
+        BATCH
+    }
+}
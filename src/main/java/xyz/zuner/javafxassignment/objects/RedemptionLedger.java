@@ -0,0 +1,242 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Counts discount redemptions and enforces each discount's validity period and usage limits at checkout.
+ * </p>
+ * <br>
+ * <p>Counters are kept per discount code, so they carry over when the discount catalog is reloaded. No lock is ever
+ * taken: a limited discount hands out its uses with a compare-and-set loop on a single counter, so two checkouts can
+ * never take the last use between them, and a discount without a limit only bumps a {@link LongAdder}, which does
+ * not contend at all. Per-customer limits are enforced the same way on a counter per customer.</p>
+ * <br>
+ * <p>A redemption that turns out not to be needed, e.g. because another part of the checkout failed, is handed back
+ * with {@link #refund(Discount, String)}.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Discount#getMaxUses()
+ * @see Cart#checkout()
+ */
+public class RedemptionLedger {
+
+    private static final RedemptionLedger shared = new RedemptionLedger();
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the ledger shared by every cart.
+     *
+     * @return RedemptionLedger
+     */
+    public static RedemptionLedger getShared() {
+        return shared;
+    }
+
+    /**
+     * Checks, without redeeming it, if a discount could be redeemed right now.
+     *
+     * @param discount the discount
+     * @param customer the customer redeeming it, null if unknown
+     * @param now      the time of use
+     * @return {@link Status#AVAILABLE}, or the reason it cannot be used
+     */
+    public Status check(Discount discount, String customer, Instant now) {
+        Status window = checkWindow(discount, now);
+        if (window != Status.AVAILABLE) {
+            return window;
+        }
+        Counter counter = counters.get(discount.getCode());
+        if (counter == null) {
+            return Status.AVAILABLE;
+        }
+        if (discount.getMaxUses() > 0 && counter.reserved.get() >= discount.getMaxUses()) {
+            return Status.SOLD_OUT;
+        }
+        if (discount.getMaxUsesPerCustomer() > 0 && customer != null) {
+            AtomicInteger uses = counter.byCustomer.get(customer);
+            if (uses != null && uses.get() >= discount.getMaxUsesPerCustomer()) {
+                return Status.CUSTOMER_LIMIT;
+            }
+        }
+        return Status.AVAILABLE;
+    }
+
+    /**
+     * Redeems a discount once if it is within its validity period and under its usage limits.
+     *
+     * @param discount the discount
+     * @param customer the customer redeeming it, null if unknown; the per-customer limit is not enforced without one
+     * @param now      the time of use
+     * @return {@link Status#AVAILABLE} if it was redeemed, otherwise the reason it was not
+     */
+    public Status tryRedeem(Discount discount, String customer, Instant now) {
+        Status window = checkWindow(discount, now);
+        if (window != Status.AVAILABLE) {
+            return window;
+        }
+        Counter counter = counterFor(discount.getCode());
+        if (discount.getMaxUses() > 0 && !increment(counter.reserved, discount.getMaxUses())) {
+            return Status.SOLD_OUT;
+        }
+        if (discount.getMaxUsesPerCustomer() > 0 && customer != null) {
+            AtomicInteger uses = counter.byCustomer.computeIfAbsent(customer, c -> new AtomicInteger());
+            if (!increment(uses, discount.getMaxUsesPerCustomer())) {
+                if (discount.getMaxUses() > 0) {
+                    counter.reserved.decrementAndGet();
+                }
+                return Status.CUSTOMER_LIMIT;
+            }
+        }
+        counter.redeemed.increment();
+        return Status.AVAILABLE;
+    }
+
+    /**
+     * Redeems every discount in a group, or none of them.
+     *
+     * @param discounts the discounts to redeem
+     * @param customer  the customer redeeming them, null if unknown
+     * @param now       the time of use
+     * @return null if all of them were redeemed, otherwise the first one that could not be
+     */
+    public Discount tryRedeemAll(Collection<Discount> discounts, String customer, Instant now) {
+        int redeemed = 0;
+        for (Discount discount : discounts) {
+            if (tryRedeem(discount, customer, now) != Status.AVAILABLE) {
+                // hand back the ones already taken
+                for (Discount taken : discounts) {
+                    if (redeemed-- == 0) {
+                        break;
+                    }
+                    refund(taken, customer);
+                }
+                return discount;
+            }
+            redeemed++;
+        }
+        return null;
+    }
+
+    /**
+     * Hands back a redemption made with {@link #tryRedeem(Discount, String, Instant)}.
+     *
+     * @param discount the discount
+     * @param customer the customer it was redeemed for, null if unknown
+     */
+    public void refund(Discount discount, String customer) {
+        Counter counter = counters.get(discount.getCode());
+        if (counter == null) {
+            return;
+        }
+        counter.redeemed.decrement();
+        if (discount.getMaxUses() > 0) {
+            counter.reserved.decrementAndGet();
+        }
+        if (discount.getMaxUsesPerCustomer() > 0 && customer != null) {
+            AtomicInteger uses = counter.byCustomer.get(customer);
+            if (uses != null) {
+                uses.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of times a discount code has been redeemed.
+     *
+     * @param code the discount code
+     * @return long
+     */
+    public long getRedemptions(String code) {
+        Counter counter = counters.get(code);
+        return counter == null ? 0 : counter.redeemed.sum();
+    }
+
+    private static Status checkWindow(Discount discount, Instant now) {
+        if (discount.getStartsAt() != null && now.isBefore(discount.getStartsAt())) {
+            return Status.NOT_STARTED;
+        }
+        if (discount.getEndsAt() != null && !now.isBefore(discount.getEndsAt())) {
+            return Status.ENDED;
+        }
+        return Status.AVAILABLE;
+    }
+
+    private Counter counterFor(String code) {
+        Counter counter = counters.get(code); // the usual case, no locking at all
+        return counter != null ? counter : counters.computeIfAbsent(code, c -> new Counter());
+    }
+
+    /**
+     * Takes one unit if the counter is below the limit.
+     */
+    private static boolean increment(AtomicLong counter, long limit) {
+        long current;
+        do {
+            current = counter.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private static boolean increment(AtomicInteger counter, int limit) {
+        int current;
+        do {
+            current = counter.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Redemption counters for one discount code.
+     */
+    private static class Counter {
+        final AtomicLong reserved = new AtomicLong(); // uses handed out, only tracked while the code has a limit
+        final LongAdder redeemed = new LongAdder(); // every redemption, for reporting
+        final ConcurrentHashMap<String, AtomicInteger> byCustomer = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Whether a discount can be redeemed, and if not, why.
+     */
+    public enum Status {
+        AVAILABLE("is available"),
+        NOT_STARTED("is not valid yet"),
+        ENDED("has expired"),
+        SOLD_OUT("has reached its usage limit"),
+        CUSTOMER_LIMIT("has already been used the maximum number of times");
+
+        private final String description;
+
+        Status(String description) {
+            this.description = description;
+        }
+
+        /**
+         * Gets a description that reads after the code, e.g. "SAVE10 has expired".
+         *
+         * @return String
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Creates {@link StockHold}s for carts and expires the ones that are not used again before their deadline, giving the
+ * stock back to the store.
+ * </p>
+ * <br>
+ * <p>Expiry is driven by a hashed timer wheel: a ring of slots that a single background thread advances once per
+ * tick. A hold is filed in the slot of its deadline, so each tick only looks at the holds due around that time no
+ * matter how many holds are outstanding. Holds that were used again since they were filed just get re-filed under their
+ * new deadline when their old slot comes up, and holds that ended are dropped.</p>
+ * <br>
+ * <p>Holds last 15 minutes by default, configurable in seconds with the {@code store.reservation.timeoutSeconds} system
+ * property.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see StockHold
+ * @see Cart
+ */
+public class ReservationManager {
+
+    private static final long DEFAULT_TIMEOUT_SECONDS = 15 * 60;
+    private static final int WHEEL_SIZE = 1024; // must be a power of two
+
+    private static final ReservationManager shared = new ReservationManager(
+            TimeUnit.SECONDS.toMillis(Long.getLong("store.reservation.timeoutSeconds", DEFAULT_TIMEOUT_SECONDS)), 1000);
+
+    private final long timeoutMillis;
+    private final long tickMillis;
+    private final ConcurrentLinkedQueue<StockHold>[] wheel;
+    private final Object tickLock = new Object();
+    private final Object tickerLock = new Object(); // never held while a hold is locked by the timer
+    private volatile ScheduledExecutorService ticker;
+    private long lastTick; // guarded by tickLock
+
+    /**
+     * Creates a reservation manager.
+     *
+     * @param timeoutMillis how long a hold lasts after it was last used
+     * @param tickMillis    the timer resolution
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"}) // generic arrays cannot be created directly
+    public ReservationManager(long timeoutMillis, long tickMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.tickMillis = tickMillis;
+        this.wheel = new ConcurrentLinkedQueue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Gets the reservation manager shared by every cart.
+     *
+     * @return ReservationManager
+     */
+    public static ReservationManager getShared() {
+        return shared;
+    }
+
+    /**
+     * Reserves units of a product and starts the expiry clock on them.
+     *
+     * @param product  the product to reserve
+     * @param quantity the number of units
+     * @return the new hold, or null if there is not enough stock
+     */
+    public StockHold hold(Product product, int quantity) {
+        if (!product.tryReserve(quantity)) {
+            return null;
+        }
+        StockHold hold = new StockHold(this, product, quantity, nextDeadline());
+        schedule(hold);
+        return hold;
+    }
+
+    /**
+     * Gets the deadline for a hold that is being used right now.
+     *
+     * @return epoch milliseconds (long)
+     */
+    long nextDeadline() {
+        return System.currentTimeMillis() + timeoutMillis;
+    }
+
+    /**
+     * Files a hold in the wheel slot of its deadline.
+     *
+     * @param hold the hold to track
+     */
+    void schedule(StockHold hold) {
+        wheel[slotOf(hold.getDeadline())].add(hold);
+        startTicker();
+    }
+
+    /**
+     * Advances the wheel to the current time, expiring every hold that is due.
+     *
+     * @return the number of holds that expired
+     */
+    public int expireDue() {
+        return expireDue(System.currentTimeMillis());
+    }
+
+    /**
+     * Advances the wheel up to the given time.
+     *
+     * @param now the current time in epoch milliseconds
+     * @return the number of holds that expired
+     */
+    int expireDue(long now) {
+        synchronized (tickLock) {
+            return advance(now);
+        }
+    }
+
+    private int advance(long now) {
+        long tick = now / tickMillis;
+        if (lastTick == 0 || tick - lastTick > WHEEL_SIZE) {
+            // first run, or the clock jumped by more than a lap: visit every slot once
+            lastTick = tick - WHEEL_SIZE;
+        }
+
+        int expired = 0;
+        while (lastTick < tick) {
+            lastTick++;
+            ConcurrentLinkedQueue<StockHold> slot = wheel[(int) (lastTick & (WHEEL_SIZE - 1))];
+            // only visit what was in the slot when we got here, re-filed holds may land in this same slot
+            for (int pending = slot.size(); pending > 0; pending--) {
+                StockHold hold = slot.poll();
+                if (hold == null) {
+                    break;
+                }
+                if (hold.expire(now)) {
+                    expired++;
+                } else if (hold.isActive()) {
+                    // used again since it was filed, or due on a later lap; never file behind the cursor
+                    long due = Math.max(hold.getDeadline() / tickMillis, lastTick + 1);
+                    wheel[(int) (due & (WHEEL_SIZE - 1))].add(hold);
+                }
+            }
+        }
+        return expired;
+    }
+
+    private int slotOf(long deadline) {
+        return (int) ((deadline / tickMillis) & (WHEEL_SIZE - 1));
+    }
+
+    private void startTicker() {
+        if (ticker != null) {
+            return;
+        }
+        synchronized (tickerLock) {
+            if (ticker == null) {
+                ticker = createTicker();
+            }
+        }
+    }
+
+    private ScheduledExecutorService createTicker() {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                expireDue();
+            } catch (RuntimeException e) {
+                System.err.println("Error expiring reservations: " + e.getMessage());
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        return ticker;
+    }
+}
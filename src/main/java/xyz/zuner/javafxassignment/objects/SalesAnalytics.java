@@ -0,0 +1,405 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ * In-memory sales analytics over every line item sold since the application started.
+ * </p>
+ * <br>
+ * <p>Line items are kept column by column in primitive arrays: UPC, category, quantity, amount paid and time of sale.
+ * UPCs and categories are stored as small ordinals into a dictionary, so a row is 28 bytes and a scan only touches
+ * the columns a query needs. Queries group by UPC or category, optionally split into time buckets, and are answered
+ * by a fork/join scan that splits the rows into chunks, sums each chunk into its own table and adds the tables
+ * together.</p>
+ * <br>
+ * <p>Rows are only ever appended. A query holds the lock just long enough to note the columns and row count, then
+ * scans them as they were at that moment, so recording a transaction never waits for a scan and a scan never sees
+ * half of a transaction.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Transaction#processTransaction()
+ */
+public class SalesAnalytics {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_CHUNK = 1 << 16; // fewest rows scanned by one fork/join leaf
+
+    private static final SalesAnalytics shared = new SalesAnalytics(ZoneId.systemDefault());
+
+    private final ZoneId zone;
+
+    // guarded by this, the arrays are replaced when they grow and never written below size once published
+    private final Dictionary upcs = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    private int[] upcColumn = new int[INITIAL_CAPACITY];
+    private int[] categoryColumn = new int[INITIAL_CAPACITY];
+    private int[] quantityColumn = new int[INITIAL_CAPACITY];
+    private long[] centsColumn = new long[INITIAL_CAPACITY];
+    private long[] secondColumn = new long[INITIAL_CAPACITY]; // epoch seconds
+    private int size;
+
+    /**
+     * Creates an empty analytics store.
+     *
+     * @param zone the time zone transaction timestamps are in
+     */
+    public SalesAnalytics(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Gets the analytics store fed by every completed transaction.
+     *
+     * @return SalesAnalytics
+     */
+    public static SalesAnalytics getShared() {
+        return shared;
+    }
+
+    /**
+     * Records the line items of a completed transaction. Each line is recorded at the price paid for it after its
+     * item discounts; cart-wide discounts and tax are not spread over the lines.
+     *
+     * @param transaction the transaction
+     */
+    public void record(Transaction transaction) {
+        long second = toSecond(transaction.getTimestamp());
+        PromotionResult promotions = transaction.getPromotions();
+        List<CartItem> items = transaction.getItems();
+        synchronized (this) {
+            ensureCapacity(size + items.size());
+            for (int i = 0, count = items.size(); i < count; i++) {
+                CartItem item = items.get(i);
+                Product product = item.getProduct();
+                upcColumn[size] = upcs.ordinal(product.getUPC());
+                categoryColumn[size] = categories.ordinal(product.getCategory());
+                quantityColumn[size] = item.getQuantity();
+                centsColumn[size] = promotions == null ? item.getSubtotal() : promotions.getLinePrice(item);
+                secondColumn[size] = second;
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Records a single line item. Used to load sales from elsewhere, e.g. a receipt archive.
+     *
+     * @param upc      the product's UPC
+     * @param category the product's category
+     * @param quantity the number of units sold
+     * @param cents    the amount paid for the line, in cents
+     * @param time     the time of sale
+     */
+    public synchronized void record(String upc, String category, int quantity, long cents, LocalDateTime time) {
+        ensureCapacity(size + 1);
+        upcColumn[size] = upcs.ordinal(upc);
+        categoryColumn[size] = categories.ordinal(category);
+        quantityColumn[size] = quantity;
+        centsColumn[size] = cents;
+        secondColumn[size] = toSecond(time);
+        size++;
+    }
+
+    /**
+     * Gets the number of line items recorded.
+     *
+     * @return int
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Totals a measure per UPC or category over a period, e.g. units sold per UPC today.
+     *
+     * @param dimension what to group by
+     * @param measure   what to total
+     * @param from      start of the period, inclusive
+     * @param to        end of the period, exclusive
+     * @return the totals, highest first, groups without sales in the period are left out
+     */
+    public Map<String, Long> total(Dimension dimension, Measure measure, LocalDateTime from, LocalDateTime to) {
+        Breakdown breakdown = breakdown(dimension, measure, from, Math.max(1, toSecond(to) - toSecond(from)), 1);
+        List<String> keys = breakdown.getKeys();
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(breakdown.get(0, b), breakdown.get(0, a)));
+
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (int key : order) {
+            if (breakdown.get(0, key) != 0) {
+                totals.put(keys.get(key), breakdown.get(0, key));
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Totals a measure per UPC or category and per time bucket, e.g. revenue by category per hour.
+     *
+     * @param dimension     what to group by
+     * @param measure       what to total
+     * @param from          start of the first bucket
+     * @param bucketSeconds length of a bucket in seconds
+     * @param buckets       number of buckets
+     * @return the totals
+     */
+    public Breakdown breakdown(Dimension dimension, Measure measure, LocalDateTime from, long bucketSeconds, int buckets) {
+        if (bucketSeconds <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException("Bucket length and count must be positive");
+        }
+        if (buckets > 1 && bucketSeconds * buckets > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Buckets cannot cover more than " + Integer.MAX_VALUE + " seconds");
+        }
+        Columns columns;
+        List<String> keys;
+        synchronized (this) {
+            columns = new Columns(dimension == Dimension.UPC ? upcColumn : categoryColumn,
+                    measure == Measure.UNITS ? quantityColumn : null,
+                    measure == Measure.REVENUE ? centsColumn : null,
+                    secondColumn);
+            keys = (dimension == Dimension.UPC ? upcs : categories).keys();
+            columns.size = size;
+        }
+        // a few leaves per worker, each leaf sums into a table of its own
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunk = Math.max(MIN_CHUNK, columns.size / (pool.getParallelism() * 4) + 1);
+        long[] table = pool.invoke(new Scan(columns, 0, columns.size, chunk, toSecond(from), bucketSeconds, buckets, keys.size()));
+        return new Breakdown(keys, from, bucketSeconds, buckets, table);
+    }
+
+    private long toSecond(LocalDateTime time) {
+        return time.atZone(zone).toEpochSecond();
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= upcColumn.length) {
+            return;
+        }
+        int capacity = Math.max(needed, upcColumn.length * 2);
+        // copies, so queries still holding the old arrays keep reading consistent columns
+        upcColumn = Arrays.copyOf(upcColumn, capacity);
+        categoryColumn = Arrays.copyOf(categoryColumn, capacity);
+        quantityColumn = Arrays.copyOf(quantityColumn, capacity);
+        centsColumn = Arrays.copyOf(centsColumn, capacity);
+        secondColumn = Arrays.copyOf(secondColumn, capacity);
+    }
+
+    /**
+     * What line items can be grouped by.
+     */
+    public enum Dimension {
+        UPC,
+        CATEGORY
+    }
+
+    /**
+     * What can be totalled.
+     */
+    public enum Measure {
+        /**
+         * Amount paid, in cents.
+         */
+        REVENUE,
+        /**
+         * Units sold.
+         */
+        UNITS
+    }
+
+    /**
+     * Totals of a measure per group and time bucket.
+     */
+    public static final class Breakdown {
+
+        private final List<String> keys;
+        private final LocalDateTime from;
+        private final long bucketSeconds;
+        private final int buckets;
+        private final long[] table; // [bucket * keys + key]
+
+        private Breakdown(List<String> keys, LocalDateTime from, long bucketSeconds, int buckets, long[] table) {
+            this.keys = keys;
+            this.from = from;
+            this.bucketSeconds = bucketSeconds;
+            this.buckets = buckets;
+            this.table = table;
+        }
+
+        /**
+         * Gets the groups, in the order their first sale was recorded.
+         *
+         * @return the UPCs or categories
+         */
+        public List<String> getKeys() {
+            return keys;
+        }
+
+        /**
+         * Gets the number of time buckets.
+         *
+         * @return int
+         */
+        public int getBuckets() {
+            return buckets;
+        }
+
+        /**
+         * Gets the start of a time bucket.
+         *
+         * @param bucket the bucket
+         * @return LocalDateTime
+         */
+        public LocalDateTime getBucketStart(int bucket) {
+            return from.plusSeconds(bucket * bucketSeconds);
+        }
+
+        /**
+         * Gets the total for a group in a time bucket.
+         *
+         * @param bucket the bucket
+         * @param key    the index of the group in {@link #getKeys()}
+         * @return long
+         */
+        public long get(int bucket, int key) {
+            return table[bucket * keys.size() + key];
+        }
+
+        /**
+         * Gets the total for a time bucket over every group.
+         *
+         * @param bucket the bucket
+         * @return long
+         */
+        public long getBucketTotal(int bucket) {
+            long total = 0;
+            for (int key = 0; key < keys.size(); key++) {
+                total += get(bucket, key);
+            }
+            return total;
+        }
+    }
+
+    /**
+     * The columns one query reads.
+     */
+    private static final class Columns {
+        final int[] group;
+        final int[] quantity; // null unless counting units
+        final long[] cents; // null unless totalling revenue
+        final long[] second;
+        int size;
+
+        Columns(int[] group, int[] quantity, long[] cents, long[] second) {
+            this.group = group;
+            this.quantity = quantity;
+            this.cents = cents;
+            this.second = second;
+        }
+    }
+
+    /**
+     * Sums a range of rows into a table of buckets by groups, splitting the range until it is one chunk.
+     */
+    private static final class Scan extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Columns columns; // tasks are never serialized, only forked
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final long start;
+        private final long bucketSeconds;
+        private final int buckets;
+        private final int keys;
+
+        Scan(Columns columns, int from, int to, int chunk, long start, long bucketSeconds, int buckets, int keys) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.start = start;
+            this.bucketSeconds = bucketSeconds;
+            this.buckets = buckets;
+            this.keys = keys;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= chunk) {
+                return scan();
+            }
+            int middle = (from + to) >>> 1;
+            Scan left = new Scan(columns, from, middle, chunk, start, bucketSeconds, buckets, keys);
+            Scan right = new Scan(columns, middle, to, chunk, start, bucketSeconds, buckets, keys);
+            left.fork();
+            long[] sums = right.compute();
+            long[] other = left.join();
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += other[i];
+            }
+            return sums;
+        }
+
+        private long[] scan() {
+            long[] sums = new long[buckets * keys];
+            int[] group = columns.group;
+            long[] second = columns.second;
+            long span = bucketSeconds * buckets;
+            int width = (int) Math.min(bucketSeconds, Integer.MAX_VALUE); // only divided by when span fits an int
+            int[] quantity = columns.quantity;
+            long[] cents = columns.cents;
+            for (int row = from; row < to; row++) {
+                long offset = second[row] - start;
+                if (offset >= 0 && offset < span) {
+                    int slot = buckets == 1 ? group[row] : (int) offset / width * keys + group[row];
+                    sums[slot] += cents != null ? cents[row] : quantity[row];
+                }
+            }
+            return sums;
+        }
+    }
+
+    /**
+     * Hands out a small ordinal for each distinct value.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int ordinal(String value) {
+            Integer ordinal = ordinals.get(value);
+            if (ordinal == null) {
+                ordinal = values.size();
+                ordinals.put(value, ordinal);
+                values.add(value);
+            }
+            return ordinal;
+        }
+
+        List<String> keys() {
+            return List.copyOf(values);
+        }
+    }
+}
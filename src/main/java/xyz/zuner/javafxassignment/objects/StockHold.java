@@ -0,0 +1,234 @@
+package xyz.zuner.javafxassignment.objects;
+
+/**
+ * <p>
+ * A time-limited hold on some units of a product, created when a product is added to a cart.
+ * </p>
+ * <br>
+ * <p>A hold ends exactly once: it is either released (item removed or cart cleared), committed (checkout) or expired
+ * by the {@link ReservationManager} timer. An expired hold no longer keeps any stock aside, but it is renewed if the
+ * cart is used again and the stock is still there.</p>
+ * <br>
+ * <p>Each hold guards its own state, so carts and the expiry timer only ever contend on a single hold.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see ReservationManager
+ * @see Product#tryReserve(int)
+ */
+public class StockHold {
+
+    private final ReservationManager manager;
+    private final Product product;
+    private int quantity;
+    private State state = State.ACTIVE;
+    private volatile long deadline; // epoch millis after which the hold expires
+
+    StockHold(ReservationManager manager, Product product, int quantity, long deadline) {
+        this.manager = manager;
+        this.product = product;
+        this.quantity = quantity;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Gets the product being held.
+     *
+     * @return Product
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Gets the number of units covered by this hold.
+     *
+     * @return quantity (int)
+     */
+    public synchronized int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Gets the state of this hold.
+     *
+     * @return State
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the time at which this hold expires if it is not used again.
+     *
+     * @return epoch milliseconds (long)
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Holds additional units, renewing the hold if it had expired.
+     *
+     * @param additional the number of extra units to hold
+     * @return true if the units were reserved, false if there was not enough stock
+     */
+    public synchronized boolean extend(int additional) {
+        if (state == State.EXPIRED) {
+            if (!product.tryReserve(quantity + additional)) {
+                return false;
+            }
+            reactivate();
+        } else {
+            checkActive();
+            if (!product.tryReserve(additional)) {
+                return false;
+            }
+        }
+        quantity += additional;
+        touch();
+        return true;
+    }
+
+    /**
+     * Gives some units back to the available stock.
+     *
+     * @param fewer the number of units to stop holding
+     */
+    public synchronized void shrink(int fewer) {
+        fewer = Math.min(fewer, quantity);
+        if (state == State.ACTIVE) {
+            product.release(fewer);
+            touch();
+        } else if (state != State.EXPIRED) {
+            checkActive();
+        }
+        quantity -= fewer;
+    }
+
+    /**
+     * Makes sure the held units are still reserved, re-reserving them if the hold had expired, and pushes the
+     * deadline back so the hold cannot expire right before it is committed.
+     *
+     * @return true if the hold is active, false if it had expired and the stock is gone
+     */
+    public synchronized boolean renew() {
+        if (state == State.EXPIRED) {
+            if (!product.tryReserve(quantity)) {
+                return false;
+            }
+            reactivate();
+        }
+        checkActive();
+        touch();
+        return true;
+    }
+
+    /**
+     * Commits the held units as sold.
+     *
+     * @throws IllegalStateException if the hold is not active
+     */
+    public synchronized void commit() {
+        checkActive();
+        product.commit(quantity);
+        state = State.COMMITTED;
+    }
+
+    /**
+     * Undoes {@link #commit()} when the rest of a checkout fails, so the units are held again.
+     *
+     * @throws IllegalStateException if the hold is not committed
+     */
+    synchronized void uncommit() {
+        if (state != State.COMMITTED) {
+            throw new IllegalStateException("Reservation for " + product.getName() + " is " + state.name().toLowerCase() + ", not committed");
+        }
+        product.uncommit(quantity);
+        reactivate();
+    }
+
+    /**
+     * Releases the held units back to the available stock. Does nothing if the hold already ended.
+     */
+    public synchronized void release() {
+        if (state == State.ACTIVE) {
+            product.release(quantity);
+        }
+        if (state == State.ACTIVE || state == State.EXPIRED) {
+            state = State.RELEASED;
+        }
+    }
+
+    /**
+     * Called by the expiry timer, releases the units if the deadline has passed.
+     *
+     * @param now the current time in epoch milliseconds
+     * @return true if the hold expired, false if it is still live or already ended
+     */
+    synchronized boolean expire(long now) {
+        if (state != State.ACTIVE || now < deadline) {
+            return false;
+        }
+        product.release(quantity);
+        state = State.EXPIRED;
+        return true;
+    }
+
+    /**
+     * Checks whether the expiry timer still needs to track this hold.
+     *
+     * @return boolean
+     */
+    synchronized boolean isActive() {
+        return state == State.ACTIVE;
+    }
+
+    /**
+     * Pushes the deadline back. The hold stays in its current timer slot, the timer re-files it when it gets there.
+     */
+    private void touch() {
+        deadline = manager.nextDeadline();
+    }
+
+    /**
+     * Re-activates an expired hold, which the timer dropped when it expired.
+     */
+    private void reactivate() {
+        state = State.ACTIVE;
+        touch();
+        manager.schedule(this);
+    }
+
+    private void checkActive() {
+        if (state != State.ACTIVE) {
+            throw new IllegalStateException("Reservation for " + product.getName() + " is already " + state.name().toLowerCase());
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "StockHold{" +
+                "product=" + product.getUPC() +
+                ", quantity=" + quantity +
+                ", state=" + state +
+                ", deadline=" + deadline +
+                '}';
+    }
+
+    /**
+     * Lifecycle of a hold.
+     */
+    public enum State {
+        ACTIVE,
+        RELEASED,
+        COMMITTED,
+        EXPIRED
+    }
+}
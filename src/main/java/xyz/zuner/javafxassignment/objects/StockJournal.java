@@ -0,0 +1,594 @@
+package xyz.zuner.javafxassignment.objects;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ * Append-only binary journal of every change to the stock on hand, so a crash does not undo the sales made since the
+ * store opened.
+ * </p>
+ * <br>
+ * <p>Checkouts and stock adjustments are encoded into an in-memory buffer while the change is applied, which only
+ * costs a few microseconds. A background committer writes the buffer to the current journal file with a single
+ * {@link FileChannel} write and forces it to the disk every few milliseconds, so concurrent checkouts share one fsync
+ * (group commit). With {@code store.journal.sync=true} a checkout also waits for its batch to reach the disk, for at
+ * most {@code store.journal.syncTimeoutMillis} (default 5000). If a batch cannot be written the file is cut back to
+ * where the batch started, the batch is kept in the buffer and retried, and the checkouts waiting for it are told it is not saved yet.</p>
+ * <br>
+ * <p>The journal is split into numbered generations next to the catalog ({@code catalog.csv.journal.00000001}, ...).
+ * Once a generation grows past {@code store.journal.checkpointBytes} (default 4 MiB) the stock on hand is written to
+ * a {@link CatalogSnapshot} and a new generation is started, and the older ones are deleted. Recovery therefore never
+ * replays more than about one generation on top of the last snapshot.</p>
+ * <br>
+ * <p>Each generation starts with a header (magic number, format version, size and modification time of the source
+ * catalog, generation number). Each record is its length, a CRC32, the record type, a timestamp, the number of
+ * changes and the changes as UPC and quantity pairs. A record cut short by a crash fails its checksum and the journal
+ * is truncated there.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see Inventory
+ * @see CatalogSnapshot
+ */
+public class StockJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x5A4A524E; // "ZJRN"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 4 + 4 + 8 + 8 + 8;
+    private static final int RECORD_HEADER_SIZE = 4 + 4; // length and checksum
+    private static final String SUFFIX = ".journal.";
+    private static final long RETRY_MILLIS = 1000; // pause before writing again after a failed write
+
+    private static final byte CHECKOUT = 1; // units sold, taken off the stock on hand
+    private static final byte ADJUSTMENT = 2; // units added (positive) or removed (negative) by hand
+
+    private static volatile StockJournal shared;
+
+    private final Inventory inventory;
+    private final Path catalog;
+    private final Path snapshot;
+    private final long sourceSize;
+    private final long sourceModified;
+    private final boolean sync;
+    private final long syncTimeoutMillis;
+    private final long commitMillis;
+    private final long checkpointBytes;
+
+    // held shared while a change is applied and journaled, exclusively while a checkpoint captures the stock levels
+    private final ReentrantReadWriteLock cut = new ReentrantReadWriteLock();
+
+    private final Object bufferLock = new Object();
+    private ByteBuffer active = ByteBuffer.allocate(64 * 1024); // guarded by bufferLock, records not yet written
+    private long appended; // guarded by bufferLock, records handed to the journal
+    private long durable; // guarded by bufferLock, records written and forced
+    private boolean closed; // guarded by bufferLock
+    private IOException failure; // guarded by bufferLock, why the records up to failedThrough could not be written
+    private long failedThrough; // guarded by bufferLock
+    private final CRC32 recordChecksum = new CRC32(); // guarded by bufferLock
+
+    // only touched by the committer thread, or under the write lock of cut
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer flushing = ByteBuffer.allocate(64 * 1024);
+    private FileChannel channel;
+    private long generation;
+    private final Thread committer;
+
+    private StockJournal(Inventory inventory, Path catalog, Path snapshot, long sourceSize, long sourceModified,
+                         boolean sync, long syncTimeoutMillis, long commitMillis, long checkpointBytes) {
+        this.inventory = inventory;
+        this.catalog = catalog;
+        this.snapshot = snapshot;
+        this.sourceSize = sourceSize;
+        this.sourceModified = sourceModified;
+        this.sync = sync;
+        this.syncTimeoutMillis = syncTimeoutMillis;
+        this.commitMillis = commitMillis;
+        this.checkpointBytes = checkpointBytes;
+        this.committer = new Thread(this::run, "stock-journal");
+        this.committer.setDaemon(true);
+    }
+
+    /**
+     * Gets the journal of the inventory loaded from an external catalog.
+     *
+     * @return StockJournal, or null if no journal is open
+     */
+    public static StockJournal getShared() {
+        return shared;
+    }
+
+    /**
+     * Replays the journal generations on top of an inventory that was just loaded from a snapshot or its source
+     * catalog, then opens the journal for new changes and makes it the shared journal. Configured with the system
+     * properties {@code store.journal.sync} (default false), {@code store.journal.syncTimeoutMillis} (default 5000),
+     * {@code store.journal.commitMillis} (default 5) and {@code store.journal.checkpointBytes} (default 4 MiB).
+     *
+     * @param inventory       the loaded inventory
+     * @param catalog         the source catalog, the journal files are kept next to it
+     * @param snapshot        the snapshot file written at checkpoints
+     * @param sourceSize      size in bytes of the source catalog
+     * @param sourceModified  last modified time in milliseconds of the source catalog
+     * @param firstGeneration the first generation not already part of the loaded stock levels
+     * @return the open journal
+     * @throws IOException if the journal cannot be opened
+     */
+    public static StockJournal open(Inventory inventory, Path catalog, Path snapshot, long sourceSize, long sourceModified,
+                                    long firstGeneration) throws IOException {
+        StockJournal journal = new StockJournal(inventory, catalog, snapshot, sourceSize, sourceModified,
+                Boolean.getBoolean("store.journal.sync"),
+                Long.getLong("store.journal.syncTimeoutMillis", 5000),
+                Long.getLong("store.journal.commitMillis", 5),
+                Long.getLong("store.journal.checkpointBytes", 4L << 20));
+        journal.recover(firstGeneration);
+        journal.committer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "stock-journal-shutdown"));
+        StockJournal previous = shared;
+        shared = journal;
+        if (previous != null) {
+            previous.close();
+        }
+        return journal;
+    }
+
+    /**
+     * Finds the oldest journal generation kept next to a catalog.
+     *
+     * @param catalog the source catalog
+     * @return the generation, or 1 if there is no journal yet
+     * @throws IOException if the directory cannot be listed
+     */
+    public static long firstGeneration(Path catalog) throws IOException {
+        long first = Long.MAX_VALUE;
+        for (long generation : generations(catalog)) {
+            first = Math.min(first, generation);
+        }
+        return first == Long.MAX_VALUE ? 1 : first;
+    }
+
+    /**
+     * Applies the stock changes of a checkout and journals them, as one step with respect to checkpoints. The quantity
+     * journaled for each hold is the quantity it committed.
+     *
+     * @param holds the holds of the lines checked out
+     * @param apply commits the holds, may throw to reject the checkout, in which case nothing is journaled
+     * @return false in sync mode if the checkout was applied but could not be written to the disk in time; it stays
+     * buffered and is written when the disk recovers
+     */
+    public boolean recordCheckout(Collection<StockHold> holds, Runnable apply) {
+        long sequence;
+        cut.readLock().lock();
+        try {
+            apply.run();
+            synchronized (bufferLock) {
+                int start = beginRecord(CHECKOUT);
+                active.putInt(holds.size());
+                for (StockHold hold : holds) {
+                    putLine(hold.getProduct().getUPC(), hold.getQuantity());
+                }
+                sequence = endRecord(start);
+            }
+        } finally {
+            cut.readLock().unlock();
+        }
+        return awaitIfSync(sequence);
+    }
+
+    /**
+     * Applies a manual stock change and journals it, as one step with respect to checkpoints.
+     *
+     * @param product the product whose stock changes
+     * @param change  units added, or removed if negative
+     * @param apply   makes the change, may throw to reject it, in which case nothing is journaled
+     * @return false in sync mode if the change was made but could not be written to the disk in time
+     */
+    public boolean recordAdjustment(Product product, int change, Runnable apply) {
+        long sequence;
+        cut.readLock().lock();
+        try {
+            apply.run();
+            synchronized (bufferLock) {
+                int start = beginRecord(ADJUSTMENT);
+                active.putInt(1);
+                putLine(product.getUPC(), change);
+                sequence = endRecord(start);
+            }
+        } finally {
+            cut.readLock().unlock();
+        }
+        return awaitIfSync(sequence);
+    }
+
+    /**
+     * Waits until everything journaled so far is on the disk.
+     *
+     * @return false if it could not be written in time
+     */
+    public boolean flush() {
+        long target;
+        synchronized (bufferLock) {
+            target = appended;
+            bufferLock.notifyAll();
+        }
+        return awaitDurable(target);
+    }
+
+    /**
+     * Writes out what is still buffered and stops the committer.
+     */
+    @Override
+    public void close() {
+        synchronized (bufferLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            bufferLock.notifyAll();
+        }
+        try {
+            committer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (shared == this) {
+            shared = null;
+        }
+    }
+
+    private int beginRecord(byte type) {
+        ensureCapacity(1024);
+        int start = active.position();
+        active.position(start + RECORD_HEADER_SIZE);
+        active.put(type).putLong(System.currentTimeMillis());
+        return start;
+    }
+
+    private void putLine(String upc, int quantity) {
+        byte[] bytes = upc.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(4 + bytes.length + 4);
+        active.putInt(bytes.length).put(bytes).putInt(quantity);
+    }
+
+    private long endRecord(int start) {
+        int end = active.position();
+        int length = end - start - RECORD_HEADER_SIZE;
+        recordChecksum.reset();
+        recordChecksum.update(active.slice(start + RECORD_HEADER_SIZE, length));
+        active.putInt(start, length).putInt(start + 4, (int) recordChecksum.getValue());
+        return ++appended;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (active.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(active.capacity() * 2, active.position() + needed));
+            active.flip();
+            active = larger.put(active);
+        }
+    }
+
+    private boolean awaitIfSync(long sequence) {
+        if (!sync) {
+            return true;
+        }
+        synchronized (bufferLock) {
+            bufferLock.notifyAll(); // don't wait out the commit interval
+        }
+        return awaitDurable(sequence);
+    }
+
+    /**
+     * Waits until the records up to the given one are on the disk, or their batch failed to write, or the sync
+     * timeout passed.
+     *
+     * @return true if they are on the disk
+     */
+    private boolean awaitDurable(long sequence) {
+        long deadline = System.nanoTime() + syncTimeoutMillis * 1_000_000;
+        synchronized (bufferLock) {
+            while (durable < sequence && !closed) {
+                long remaining = deadline - System.nanoTime();
+                if ((failure != null && failedThrough >= sequence) || remaining <= 0) {
+                    return false;
+                }
+                try {
+                    bufferLock.wait(Math.max(1, remaining / 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return durable >= sequence;
+        }
+    }
+
+    /**
+     * Committer loop: swaps the buffers, writes and forces what was appended, and checkpoints when the current
+     * generation is large enough.
+     */
+    private void run() {
+        boolean stopping = false;
+        while (!stopping) {
+            synchronized (bufferLock) {
+                if (active.position() == 0 && !closed) {
+                    try {
+                        bufferLock.wait(commitMillis);
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                stopping = closed;
+            }
+            try {
+                if (commit() && channel.size() >= checkpointBytes) {
+                    checkpoint();
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing stock journal " + fileOf(generation) + ": " + e.getMessage());
+                synchronized (bufferLock) {
+                    if (!closed) {
+                        try {
+                            bufferLock.wait(RETRY_MILLIS);
+                        } catch (InterruptedException interrupted) {
+                            closed = true;
+                        }
+                    }
+                }
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing stock journal: " + e.getMessage());
+        }
+        synchronized (bufferLock) {
+            bufferLock.notifyAll();
+        }
+    }
+
+    /**
+     * Writes and forces every record appended so far, then wakes the checkouts waiting for them. If that fails the
+     * file is cut back to where the batch started and the batch is put back in front of the records appended since,
+     * to be written again, and the checkouts waiting for it are woken and told it is not saved yet.
+     *
+     * @return false if there was nothing to write
+     */
+    private boolean commit() throws IOException {
+        long target;
+        synchronized (bufferLock) {
+            if (active.position() == 0) {
+                return false;
+            }
+            ByteBuffer full = active;
+            active = flushing;
+            flushing = full;
+            target = appended;
+        }
+        long start = channel.size();
+        flushing.flip();
+        try {
+            while (flushing.hasRemaining()) {
+                channel.write(flushing);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            try {
+                channel.truncate(start);
+            } catch (IOException truncateFailed) {
+                e.addSuppressed(truncateFailed); // the partial batch fails its checksum on replay, cutting off the rest
+            }
+            synchronized (bufferLock) {
+                restore();
+                failure = e;
+                failedThrough = target;
+                bufferLock.notifyAll();
+            }
+            throw e;
+        }
+        flushing.clear();
+        synchronized (bufferLock) {
+            durable = target;
+            failure = null;
+            bufferLock.notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Makes the batch that failed to write the active buffer again, followed by the records appended since.
+     */
+    private void restore() {
+        ByteBuffer appendedSince = active;
+        active = flushing;
+        flushing = appendedSince;
+        active.position(active.limit()).limit(active.capacity());
+        flushing.flip();
+        ensureCapacity(flushing.remaining());
+        active.put(flushing);
+        flushing.clear();
+    }
+
+    /**
+     * Captures the stock on hand, starts a new generation, writes the captured levels to the snapshot and deletes
+     * the generations it covers.
+     */
+    private void checkpoint() throws IOException {
+        List<Product> products;
+        int[] stock;
+        long next;
+        cut.writeLock().lock();
+        try {
+            commit(); // the records of every change made so far, now that no more can start
+            products = new ArrayList<>(inventory.getAllProducts());
+            stock = onHand(products);
+            next = generation + 1;
+            FileChannel nextChannel = create(next);
+            channel.close();
+            channel = nextChannel;
+            generation = next;
+        } finally {
+            cut.writeLock().unlock();
+        }
+
+        CatalogSnapshot.write(snapshot, products, stock, sourceSize, sourceModified, next);
+        deleteBefore(next);
+    }
+
+    /**
+     * Replays every generation from the given one on, then either carries on in the last generation or, if anything
+     * was replayed, checkpoints so the next start has nothing to replay.
+     */
+    private void recover(long firstGeneration) throws IOException {
+        int records = 0, unknown = 0;
+        long current = firstGeneration;
+        for (; Files.exists(fileOf(current)); current++) {
+            Path file = fileOf(current);
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (!validHeader(data, current)) {
+                Path stale = file.resolveSibling(file.getFileName() + ".stale");
+                Files.move(file, stale, StandardCopyOption.REPLACE_EXISTING);
+                System.err.println("Journal " + file + " belongs to another version of the catalog, moved to " + stale);
+                break;
+            }
+            int valid = data.position();
+            while (data.remaining() >= RECORD_HEADER_SIZE) {
+                int length = data.getInt();
+                int checksum = data.getInt();
+                if (length <= 0 || length > data.remaining()) {
+                    break;
+                }
+                ByteBuffer body = data.slice(data.position(), length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                unknown += replay(body);
+                records++;
+                data.position(data.position() + length);
+                valid = data.position();
+            }
+            if (valid < data.limit()) {
+                System.err.println("Journal " + file + " ends in a partial record, truncating it at byte " + valid);
+                try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    truncate.truncate(valid);
+                }
+            }
+        }
+        long last = current - 1;
+        if (unknown > 0) {
+            System.err.println("Skipped " + unknown + " journaled changes to products no longer in the catalog");
+        }
+
+        if (records > 0 || last < firstGeneration) {
+            // fold what was replayed into a fresh snapshot and start over in a new generation
+            generation = Math.max(last, firstGeneration - 1) + 1;
+            channel = create(generation);
+            if (records > 0) {
+                CatalogSnapshot.write(snapshot, inventory.getAllProducts(), onHand(inventory.getAllProducts()), sourceSize, sourceModified, generation);
+                deleteBefore(generation);
+            }
+        } else {
+            generation = last;
+            channel = FileChannel.open(fileOf(generation), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Applies one journal record to the inventory.
+     *
+     * @return the number of changes that named a product the inventory does not have
+     */
+    private int replay(ByteBuffer body) {
+        byte type = body.get();
+        body.getLong(); // timestamp
+        int lines = body.getInt();
+        int unknown = 0;
+        for (int i = 0; i < lines; i++) {
+            byte[] upc = new byte[body.getInt()];
+            body.get(upc);
+            int quantity = body.getInt();
+            Product product = inventory.getProductByUPC(new String(upc, StandardCharsets.UTF_8));
+            if (product == null) {
+                unknown++;
+            } else if (type == CHECKOUT) {
+                product.add(-quantity);
+            } else if (type == ADJUSTMENT) {
+                product.add(quantity);
+            }
+        }
+        return unknown;
+    }
+
+    private boolean validHeader(ByteBuffer data, long expectedGeneration) {
+        return data.remaining() >= FILE_HEADER_SIZE
+                && data.getInt() == MAGIC && data.getInt() == VERSION
+                && data.getLong() == sourceSize && data.getLong() == sourceModified
+                && data.getLong() == expectedGeneration;
+    }
+
+    private FileChannel create(long number) throws IOException {
+        FileChannel created = FileChannel.open(fileOf(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(sourceSize).putLong(sourceModified).putLong(number).flip();
+        while (header.hasRemaining()) {
+            created.write(header);
+        }
+        created.force(true);
+        return created;
+    }
+
+    private void deleteBefore(long number) throws IOException {
+        for (long old : generations(catalog)) {
+            if (old < number) {
+                Files.deleteIfExists(fileOf(old));
+            }
+        }
+    }
+
+    private Path fileOf(long number) {
+        return catalog.resolveSibling(catalog.getFileName() + SUFFIX + String.format("%08d", number));
+    }
+
+    private static int[] onHand(List<Product> products) {
+        int[] stock = new int[products.size()];
+        for (int i = 0; i < stock.length; i++) {
+            stock[i] = products.get(i).getOnHand();
+        }
+        return stock;
+    }
+
+    private static List<Long> generations(Path catalog) throws IOException {
+        List<Long> found = new ArrayList<>();
+        String prefix = catalog.getFileName() + SUFFIX;
+        Path directory = catalog.toAbsolutePath().getParent();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path file : files) {
+                try {
+                    found.add(Long.parseLong(file.getFileName().toString().substring(prefix.length())));
+                } catch (NumberFormatException e) {
+                    // not one of ours, e.g. a .stale file
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -1,14 +1,7 @@
 package xyz.zuner.javafxassignment.objects;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Scanner;
 import java.util.UUID;
 
 /**
@@ -30,21 +23,23 @@ public class Transaction {
     private final LocalDateTime timestamp;
     private final String appliedDiscounts;
     private final List<CartItem> items;
-    private final double subtotal;
-    private final double totalTax;
-    private final double totalDiscount;
-    private final double total;
+    private final long subtotal; // amounts in cents
+    private final long totalTax;
+    private final long totalDiscount;
+    private final long total;
+    private final PromotionResult promotions;
 
     /**
      * Constructor for Transaction.
      *
      * @param items         list of CartItem objects involved in the transaction.
-     * @param subtotal      subtotal of the transaction before taxes and discounts.
-     * @param totalTax      total tax amount for the transaction.
-     * @param totalDiscount total discount amount applied to the transaction.
-     * @param total         final total amount after all taxes and discounts.
+     * @param subtotal      subtotal of the transaction before taxes and discounts, in cents.
+     * @param totalTax      total tax amount for the transaction, in cents.
+     * @param totalDiscount total discount amount applied to the transaction, in cents.
+     * @param total         final total amount after all taxes and discounts, in cents.
+     * @param promotions    the discounts applied to each line and to the whole cart.
      */
-    public Transaction(String appliedDiscounts, List<CartItem> items, double subtotal, double totalTax, double totalDiscount, double total) {
+    public Transaction(String appliedDiscounts, List<CartItem> items, long subtotal, long totalTax, long totalDiscount, long total, PromotionResult promotions) {
         this.appliedDiscounts = appliedDiscounts;
         this.id = UUID.randomUUID().toString();
         this.timestamp = LocalDateTime.now();
@@ -53,78 +48,123 @@ public class Transaction {
         this.totalTax = totalTax;
         this.totalDiscount = totalDiscount;
         this.total = total;
+        this.promotions = promotions;
     }
 
     /**
      * Generates a detailed receipt for the transaction.
      *
      * @return The detailed receipt as a String.
+     * @see ReceiptRenderer
      */
     private String generateReceipt() {
-        StringBuilder receipt = new StringBuilder();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        receipt.append("Z's Discount Electronics!\n");
-        receipt.append("Transaction ID: ").append(id).append("\n");
-        receipt.append("Timestamp: ").append(timestamp.format(formatter)).append("\n");
-
-        receipt.append("\nItems Purchased:\n");
-        for (CartItem item : items) {
-            receipt.append("- ").append(item.getProduct().getName())
-                    .append("(").append(item.getSelectedOptions()).append(")")
-                    .append(" x ").append(item.getQuantity())
-                    .append(": $").append(String.format("%.2f", item.getDiscountedPrice())).append("\n")
-                    .append(item.getProduct().getDescription());
-        }
-
-        receipt.append("\nDiscounts:\n");
-        receipt.append(appliedDiscounts).append("\n");
-
-        receipt.append("\n----------------------------------\n");
-        receipt.append(String.format("Subtotal:            $%.2f\n", subtotal));
-        receipt.append(String.format("Tax:                 $%.2f\n", totalTax));
-        receipt.append(String.format("Total Discount:      -$%.2f\n", totalDiscount));
-        receipt.append(String.format("Total:               $%.2f\n", total));
-        receipt.append("----------------------------------\n");
-        receipt.append("\n!!!THANK YOU!!!\n");
-
-        return receipt.toString();
+        return ReceiptRenderer.plainText().render(this);
     }
 
     /**
-     * Method for saving the receipt to a text file with a default path fallback.
+     * Queues the receipt to be saved by the background receipt writer.
      *
      * @param receipt The receipt content to save.
+     * @see ReceiptWriter
      */
     private void saveToDrive(String receipt) {
-        Scanner scanner = new Scanner(System.in);
-        System.out.println("Enter the directory path where you want to save the receipt, or press ENTER to use the default location:");
-        String directory = scanner.nextLine();
-        Path path;
-
-        if (directory.isEmpty()) {
-            path = Paths.get(System.getProperty("user.home"), "javafx-receipts", id + ".txt");
-            System.out.println("No directory provided. Using default directory: " + path.getParent());
-        } else {
-            path = Paths.get(directory, id + ".txt");
-        }
-
-        try {
-            Files.createDirectories(path.getParent());
-            Files.writeString(path, receipt, StandardCharsets.UTF_8);
-            System.out.println("Receipt saved successfully to " + path);
-        } catch (IOException e) {
-            System.out.println("Error saving the receipt: " + e.getMessage());
+        if (!ReceiptWriter.getShared().submit(id, timestamp, receipt)) {
+            System.err.println("Receipt " + id + " could not be saved, the receipt writer is closed");
         }
     }
 
     /**
-     * Generates a detailed receipt for the transaction and saves to a text file with a default path fallback.
+     * Generates a detailed receipt for the transaction, queues it to be saved and records the sale for analytics. Does
+     * not wait for the receipt to reach the disk.
      *
      * @return The detailed receipt as a String.
+     * @see SalesAnalytics
      */
     public String processTransaction() {
         String receipt = generateReceipt();
         saveToDrive(receipt);
+        SalesAnalytics.getShared().record(this);
         return receipt;
     }
+
+    /**
+     * Gets the transaction id.
+     *
+     * @return id (String)
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the time of the transaction.
+     *
+     * @return timestamp (LocalDateTime)
+     */
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the discount codes applied to the transaction, as shown on the receipt.
+     *
+     * @return appliedDiscounts (String)
+     */
+    public String getAppliedDiscounts() {
+        return appliedDiscounts;
+    }
+
+    /**
+     * Gets the items purchased.
+     *
+     * @return items (List of CartItem)
+     */
+    public List<CartItem> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the subtotal before taxes and discounts, in cents.
+     *
+     * @return subtotal (long)
+     */
+    public long getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * Gets the total tax, in cents.
+     *
+     * @return totalTax (long)
+     */
+    public long getTotalTax() {
+        return totalTax;
+    }
+
+    /**
+     * Gets the total discount, in cents.
+     *
+     * @return totalDiscount (long)
+     */
+    public long getTotalDiscount() {
+        return totalDiscount;
+    }
+
+    /**
+     * Gets the final total after taxes and discounts, in cents.
+     *
+     * @return total (long)
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the discounts applied to each line and to the whole cart.
+     *
+     * @return promotions (PromotionResult)
+     */
+    public PromotionResult getPromotions() {
+        return promotions;
+    }
 }
@@ -0,0 +1,596 @@
+package xyz.zuner.javafxassignment.simulation;
+
+import xyz.zuner.javafxassignment.objects.Cart;
+import xyz.zuner.javafxassignment.objects.CartItem;
+import xyz.zuner.javafxassignment.objects.CartTotals;
+import xyz.zuner.javafxassignment.objects.Discount;
+import xyz.zuner.javafxassignment.objects.DiscountFactory;
+import xyz.zuner.javafxassignment.objects.Inventory;
+import xyz.zuner.javafxassignment.objects.Product;
+import xyz.zuner.javafxassignment.objects.PromotionResult;
+import xyz.zuner.javafxassignment.objects.RedemptionLedger;
+import xyz.zuner.javafxassignment.objects.StockJournal;
+import xyz.zuner.javafxassignment.objects.Transaction;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Headless load generator: simulates many shoppers using the store at once, without the UI, to size the store for a
+ * sale.
+ * </p>
+ * <br>
+ * <p>Every shopper runs on its own virtual thread and drives {@link Cart}, {@link Inventory} and
+ * {@link DiscountFactory} directly, following one of the {@link ShopperScript}s on each visit. All shoppers are
+ * released at the same moment, like doors opening on a sale. The shoppers' choices come from a fixed seed, so a run
+ * can be repeated with the same shoppers doing the same things; only the order in which they reach the shared stock
+ * differs from run to run.</p>
+ * <br>
+ * <p>The report gives throughput, latency percentiles per step and how often adds, promo codes and checkouts were
+ * turned down. After the run the inventory and the promotion ledger are checked against what the shoppers actually
+ * bought: no product may be sold beyond its stock, no stock may be left reserved, every sale must be accounted for
+ * in the stock and every promotion must stay within its usage limits. Each checkout's totals are also checked
+ * against its lines. Any violation is listed and the simulator exits with status 1.</p>
+ * <br>
+ * <p>Run it from the application jar, e.g. after {@code mvn package}:
+ * {@code java -cp target/javafx-assignment-1.0.0.jar xyz.zuner.javafxassignment.simulation.LoadSimulator --shoppers 5000}.
+ * It uses the bundled catalog and discounts unless {@code store.catalog} or {@code store.discounts} say otherwise.
+ * Receipts are saved to a temporary directory unless {@code store.receipts.dir} is set. The simulated sales are not
+ * journaled, and the catalog snapshot is written to a temporary directory, unless {@code store.journal} is set; with
+ * {@code store.journal=true} they count as real sales of the catalog. Product options are chosen on
+ * the shared {@link Product}, so a shopper holds the product while selecting options and adding it.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see ShopperScript
+ */
+public class LoadSimulator {
+
+    private static final int SEARCH_LIMIT = 50;
+    private static final int MAX_VIOLATIONS_SHOWN = 20;
+
+    private final Inventory inventory;
+    private final List<ShopperScript> scripts;
+    private final int shoppers;
+    private final int visits;
+    private final long seed;
+    private final long thinkMillis;
+
+    // read-only while the shoppers run
+    private List<Product> products;
+    private String[] categories;
+    private List<String> promoCodes;
+    private Map<Product, Integer> productIndex;
+
+    // filled in by the shoppers
+    private AtomicIntegerArray sold;
+    private final ConcurrentHashMap<String, LongAdder> redemptions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> customerRedemptions = new ConcurrentHashMap<>(); // "code customer"
+    private final LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+    private final ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a simulator.
+     *
+     * @param inventory   the store's inventory, its stock is used up by the run
+     * @param scripts     the scripts shoppers pick from, by weight
+     * @param shoppers    number of shoppers in the store at once
+     * @param visits      number of visits each shopper makes, one after the other
+     * @param seed        seed for every choice the shoppers make
+     * @param thinkMillis average pause before each step, 0 for none
+     */
+    public LoadSimulator(Inventory inventory, List<ShopperScript> scripts, int shoppers, int visits, long seed, long thinkMillis) {
+        if (scripts.isEmpty() || shoppers <= 0 || visits <= 0 || thinkMillis < 0) {
+            throw new IllegalArgumentException("Need at least one script, shopper and visit, and a think time of at least 0");
+        }
+        this.inventory = inventory;
+        this.scripts = List.copyOf(scripts);
+        this.shoppers = shoppers;
+        this.visits = visits;
+        this.seed = seed;
+        this.thinkMillis = thinkMillis;
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int shoppers = 1000;
+        int visits = 1;
+        long seed = 42;
+        long thinkMillis = 0;
+        int stock = -1;
+        List<ShopperScript> scripts = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help")) {
+                    printUsage(System.out);
+                    return;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--shoppers" -> shoppers = Integer.parseInt(value);
+                    case "--visits" -> visits = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--think-millis" -> thinkMillis = Long.parseLong(value);
+                    case "--stock" -> stock = Integer.parseInt(value);
+                    case "--script" -> scripts.add(ShopperScript.parse(value));
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) { // includes NumberFormatException
+            System.err.println(e.getMessage());
+            printUsage(System.err);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            if (System.getProperty("store.receipts.dir") == null) {
+                System.setProperty("store.receipts.dir", Files.createTempDirectory("simulated-receipts").toString());
+            }
+            // keep simulated sales out of the store's own journal and snapshot unless asked to
+            if (System.getProperty("store.journal") == null) {
+                System.setProperty("store.journal", "false");
+                if (System.getProperty("store.catalog.snapshot") == null) {
+                    System.setProperty("store.catalog.snapshot",
+                            Files.createTempDirectory("simulated-catalog").resolve("catalog.snapshot").toString());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error creating a temporary directory: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        Inventory inventory = new Inventory();
+        if (stock >= 0) {
+            int level = stock;
+            StockJournal journal = StockJournal.getShared();
+            for (Product product : inventory.getAllProducts()) {
+                if (journal != null) {
+                    journal.recordAdjustment(product, level - product.getStock(), () -> product.setStock(level));
+                } else {
+                    product.setStock(level);
+                }
+            }
+        }
+
+        LoadSimulator simulator = new LoadSimulator(inventory, scripts.isEmpty() ? ShopperScript.DEFAULTS : scripts,
+                shoppers, visits, seed, thinkMillis);
+        boolean consistent = simulator.run(System.out);
+        System.out.flush();
+        System.exit(consistent ? 0 : 1);
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: LoadSimulator [--shoppers n] [--visits n] [--seed n] [--think-millis n] [--stock n] [--script spec]...");
+        out.println("  --shoppers      shoppers in the store at once (default 1000)");
+        out.println("  --visits        visits per shopper (default 1)");
+        out.println("  --seed          seed for the shoppers' choices (default 42)");
+        out.println("  --think-millis  average pause before each step (default 0)");
+        out.println("  --stock         set every product's stock to this before the run (default: keep the catalog's)");
+        out.println("  --script        a shopper script, may be repeated (default: " + ShopperScript.DEFAULTS + ")");
+    }
+
+    /**
+     * Runs the simulation and prints the report.
+     *
+     * @param out where to print the report
+     * @return true if no consistency violations were found
+     * @throws InterruptedException if interrupted while waiting for the shoppers
+     */
+    public boolean run(PrintStream out) throws InterruptedException {
+        DiscountFactory.loadAsync();
+        DiscountFactory.awaitReady();
+        prepare();
+        int[] initialOnHand = new int[products.size()];
+        for (int i = 0; i < initialOnHand.length; i++) {
+            initialOnHand[i] = products.get(i).getOnHand();
+        }
+
+        // every shopper's random choices are drawn up front, so they don't depend on scheduling
+        Random master = new Random(seed);
+        Shopper[] crowd = new Shopper[shoppers];
+        for (int i = 0; i < shoppers; i++) {
+            crowd[i] = new Shopper(i, new SplittableRandom(master.nextLong()));
+        }
+
+        CountDownLatch doorsOpen = new CountDownLatch(1);
+        long started;
+        long finished;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Shopper shopper : crowd) {
+                executor.execute(() -> {
+                    try {
+                        doorsOpen.await();
+                        shopper.run();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        violation(shopper.customerId + " failed: " + e);
+                    }
+                });
+            }
+            started = System.nanoTime();
+            doorsOpen.countDown();
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            finished = System.nanoTime();
+        }
+
+        checkStock(initialOnHand);
+        checkPromotions();
+        report(out, crowd, finished - started);
+        return violations.isEmpty();
+    }
+
+    private void prepare() {
+        products = inventory.getAllProducts();
+        if (products.isEmpty()) {
+            throw new IllegalStateException("The catalog has no products to shop for");
+        }
+        categories = inventory.getCategories();
+        productIndex = new IdentityHashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            productIndex.put(products.get(i), i);
+        }
+        sold = new AtomicIntegerArray(products.size());
+
+        List<String> codes = new ArrayList<>();
+        for (Discount discount : DiscountFactory.getDiscountMap().values()) {
+            if (!discount.isAutomatic()) {
+                codes.add(discount.getCode());
+            }
+        }
+        codes.sort(Comparator.naturalOrder()); // the map's order is not fixed, the shoppers' picks must be
+        promoCodes = codes;
+    }
+
+    /**
+     * Checks the stock of every product against what the shoppers bought. Every cart is empty by now.
+     */
+    private void checkStock(int[] initialOnHand) {
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            int unitsSold = sold.get(i);
+            if (unitsSold > initialOnHand[i]) {
+                violation("Oversold " + product.getUPC() + ": sold " + unitsSold + " of " + initialOnHand[i]);
+            }
+            if (product.getOnHand() != initialOnHand[i] - unitsSold) {
+                violation("Stock of " + product.getUPC() + " does not add up: " + initialOnHand[i] + " - " + unitsSold
+                        + " sold, but " + product.getOnHand() + " on hand");
+            }
+            if (product.getReserved() != 0) {
+                violation("Stock of " + product.getUPC() + " still reserved after every cart was emptied: " + product.getReserved());
+            }
+            if (product.getStock() != product.getOnHand()) {
+                violation("Available stock of " + product.getUPC() + " is " + product.getStock() + " with "
+                        + product.getOnHand() + " on hand and nothing reserved");
+            }
+        }
+    }
+
+    /**
+     * Checks the promotion ledger and the usage limits against the promotions used at checkout.
+     */
+    private void checkPromotions() {
+        RedemptionLedger ledger = RedemptionLedger.getShared();
+        for (Map.Entry<String, LongAdder> entry : redemptions.entrySet()) {
+            String code = entry.getKey();
+            long used = entry.getValue().sum();
+            Discount discount = DiscountFactory.getDiscountByCode(code);
+            if (ledger.getRedemptions(code) != used) {
+                violation("Ledger counts " + ledger.getRedemptions(code) + " redemptions of " + code + ", shoppers used it " + used + " times");
+            }
+            if (discount != null && discount.getMaxUses() > 0 && used > discount.getMaxUses()) {
+                violation(code + " was used " + used + " times, its limit is " + discount.getMaxUses());
+            }
+        }
+        for (Map.Entry<String, LongAdder> entry : customerRedemptions.entrySet()) {
+            String code = entry.getKey().substring(0, entry.getKey().indexOf(' '));
+            Discount discount = DiscountFactory.getDiscountByCode(code);
+            if (discount != null && discount.getMaxUsesPerCustomer() > 0 && entry.getValue().sum() > discount.getMaxUsesPerCustomer()) {
+                violation(entry.getKey() + " used " + entry.getValue().sum() + " times, the per-customer limit is " + discount.getMaxUsesPerCustomer());
+            }
+        }
+    }
+
+    private void violation(String description) {
+        violations.add(description);
+    }
+
+    private void report(PrintStream out, Shopper[] crowd, long nanos) {
+        double seconds = nanos / 1e9;
+        long steps = 0;
+        long[][] latencies = new long[ShopperScript.Step.values().length][];
+        for (ShopperScript.Step step : ShopperScript.Step.values()) {
+            int count = 0;
+            for (Shopper shopper : crowd) {
+                count += shopper.latencyCounts[step.ordinal()];
+            }
+            long[] merged = new long[count];
+            int position = 0;
+            for (Shopper shopper : crowd) {
+                int length = shopper.latencyCounts[step.ordinal()];
+                System.arraycopy(shopper.latencies[step.ordinal()], 0, merged, position, length);
+                position += length;
+            }
+            Arrays.sort(merged);
+            latencies[step.ordinal()] = merged;
+            steps += count;
+        }
+
+        long checkouts = outcomes[Outcome.CHECKED_OUT.ordinal()].sum();
+        out.printf("Simulated %d shoppers x %d visits with seed %d in %.2f s%n", shoppers, visits, seed, seconds);
+        out.println("Scripts: " + scripts);
+        out.printf("Throughput: %.1f checkouts/s, %.1f steps/s%n", checkouts / seconds, steps / seconds);
+        out.println();
+        out.printf("%-10s %9s %10s %10s %10s %10s %10s%n", "Step (us)", "count", "p50", "p90", "p99", "p99.9", "max");
+        for (ShopperScript.Step step : ShopperScript.Step.values()) {
+            long[] sorted = latencies[step.ordinal()];
+            if (sorted.length == 0) {
+                continue;
+            }
+            out.printf("%-10s %9d %10.1f %10.1f %10.1f %10.1f %10.1f%n", step.name().toLowerCase(Locale.ROOT), sorted.length,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e3);
+        }
+        out.println();
+        for (Outcome outcome : Outcome.values()) {
+            out.printf("%-22s %d%n", outcome.description + ":", outcomes[outcome.ordinal()].sum());
+        }
+        long unitsSold = 0;
+        for (int i = 0; i < sold.length(); i++) {
+            unitsSold += sold.get(i);
+        }
+        out.printf("%-22s %d%n", "Units sold:", unitsSold);
+        out.println();
+
+        if (violations.isEmpty()) {
+            out.println("Consistency: OK, no oversold, leaked or unaccounted stock and every promotion within its limits");
+            return;
+        }
+        out.println("Consistency: " + violations.size() + " violations");
+        violations.stream().limit(MAX_VIOLATIONS_SHOWN).forEach(violation -> out.println("  " + violation));
+        if (violations.size() > MAX_VIOLATIONS_SHOWN) {
+            out.println("  ...");
+        }
+    }
+
+    /**
+     * Nearest-rank percentile, in microseconds.
+     */
+    private static double percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e3;
+    }
+
+    /**
+     * What can come of a step, counted over the whole run.
+     */
+    private enum Outcome {
+        CHECKED_OUT("Checkouts"),
+        CHECKOUT_FAILED("Checkouts turned down"),
+        EMPTY_CHECKOUT("Checkouts of empty carts"),
+        ABANDONED("Carts abandoned"),
+        OUT_OF_STOCK("Adds out of stock"),
+        PROMO_APPLIED("Promo codes applied"),
+        PROMO_REJECTED("Promo codes rejected");
+
+        final String description;
+
+        Outcome(String description) {
+            this.description = description;
+        }
+    }
+
+    /**
+     * One simulated shopper. Only its own virtual thread touches it until the run is over.
+     */
+    private class Shopper {
+
+        private final String customerId;
+        private final SplittableRandom random;
+        private final long[][] latencies = new long[ShopperScript.Step.values().length][8];
+        private final int[] latencyCounts = new int[ShopperScript.Step.values().length];
+        private List<Product> seen;
+        private Cart cart;
+
+        Shopper(int id, SplittableRandom random) {
+            this.customerId = "shopper-" + id;
+            this.random = random;
+        }
+
+        void run() throws InterruptedException {
+            for (int visit = 0; visit < visits; visit++) {
+                ShopperScript script = pickScript();
+                cart = new Cart();
+                cart.setCustomerId(customerId);
+                seen = products;
+                try {
+                    for (ShopperScript.Step step : script.getSteps()) {
+                        think();
+                        long start = System.nanoTime();
+                        perform(step);
+                        record(step, System.nanoTime() - start);
+                    }
+                } finally {
+                    if (!cart.isEmpty()) {
+                        cart.clearCart(); // walked out without checking out
+                        outcomes[Outcome.ABANDONED.ordinal()].increment();
+                    }
+                }
+            }
+        }
+
+        private ShopperScript pickScript() {
+            int total = 0;
+            for (ShopperScript script : scripts) {
+                total += script.getWeight();
+            }
+            int pick = random.nextInt(total);
+            for (ShopperScript script : scripts) {
+                pick -= script.getWeight();
+                if (pick < 0) {
+                    return script;
+                }
+            }
+            throw new IllegalStateException("Script weights changed during the run");
+        }
+
+        private void think() throws InterruptedException {
+            if (thinkMillis > 0) {
+                Thread.sleep(random.nextLong(2 * thinkMillis + 1)); // averages out at thinkMillis
+            }
+        }
+
+        private void perform(ShopperScript.Step step) {
+            switch (step) {
+                case BROWSE -> browse();
+                case ADD -> add();
+                case PROMO -> promo();
+                case CHECKOUT -> checkout();
+                case ABANDON -> {
+                    if (!cart.isEmpty()) {
+                        cart.clearCart();
+                        outcomes[Outcome.ABANDONED.ordinal()].increment();
+                    }
+                }
+            }
+        }
+
+        private void browse() {
+            List<Product> found;
+            if (random.nextBoolean() && categories.length > 0) {
+                found = inventory.getProductsByCategory(categories[random.nextInt(categories.length)]);
+            } else {
+                String name = products.get(random.nextInt(products.size())).getName();
+                int space = name.indexOf(' ');
+                found = inventory.search(space > 0 ? name.substring(0, space) : name, SEARCH_LIMIT);
+            }
+            if (found != null && !found.isEmpty()) {
+                seen = found;
+            }
+        }
+
+        private void add() {
+            Product product = seen.get(random.nextInt(seen.size()));
+            int quantity = 1 + random.nextInt(2);
+            List<String> optionCategories = new ArrayList<>(product.getOptions().keySet());
+            optionCategories.sort(Comparator.naturalOrder());
+            try {
+                // the selection lives on the shared product until the cart line copies it
+                synchronized (product) {
+                    for (String optionCategory : optionCategories) {
+                        List<String> values = product.getOptions().get(optionCategory);
+                        product.setSelectedOption(optionCategory, values.get(random.nextInt(values.size())));
+                    }
+                    cart.addProduct(product, quantity);
+                }
+            } catch (IllegalArgumentException e) {
+                outcomes[Outcome.OUT_OF_STOCK.ordinal()].increment();
+            }
+        }
+
+        private void promo() {
+            if (promoCodes.isEmpty()) {
+                return;
+            }
+            try {
+                cart.applyDiscountCode(promoCodes.get(random.nextInt(promoCodes.size())));
+                outcomes[Outcome.PROMO_APPLIED.ordinal()].increment();
+            } catch (IllegalArgumentException e) {
+                outcomes[Outcome.PROMO_REJECTED.ordinal()].increment();
+            }
+        }
+
+        private void checkout() {
+            if (cart.isEmpty()) {
+                outcomes[Outcome.EMPTY_CHECKOUT.ordinal()].increment();
+                return;
+            }
+            checkTotals();
+            try {
+                cart.checkout();
+            } catch (IllegalStateException e) {
+                outcomes[Outcome.CHECKOUT_FAILED.ordinal()].increment();
+                cart.clearCart();
+                return;
+            }
+
+            List<CartItem> items = cart.getItems();
+            for (CartItem item : items) {
+                sold.addAndGet(productIndex.get(item.getProduct()), item.getQuantity());
+            }
+            PromotionResult promotions = cart.getPromotions();
+            for (Discount discount : promotions.getDiscountsUsed()) {
+                redemptions.computeIfAbsent(discount.getCode(), code -> new LongAdder()).increment();
+                customerRedemptions.computeIfAbsent(discount.getCode() + " " + customerId, key -> new LongAdder()).increment();
+            }
+
+            CartTotals totals = cart.getTotals();
+            new Transaction(cart.getAppliedDiscountCodes(), items, totals.getSubtotal(), totals.getTax(),
+                    totals.getDiscount(), totals.getTotal(), promotions).processTransaction();
+            outcomes[Outcome.CHECKED_OUT.ordinal()].increment();
+            cart.clearCart();
+            cart.clearDiscounts();
+        }
+
+        /**
+         * Checks the cart's running totals against its lines.
+         */
+        private void checkTotals() {
+            CartTotals totals = cart.getTotals();
+            long subtotal = 0;
+            int units = 0;
+            for (CartItem item : cart.getItems()) {
+                subtotal += item.getSubtotal();
+                units += item.getQuantity();
+            }
+            if (totals.getSubtotal() != subtotal || totals.getItemCount() != units) {
+                violation(customerId + "'s cart totals " + totals.getItemCount() + " units for " + totals.getSubtotal()
+                        + " cents, its lines add up to " + units + " units for " + subtotal + " cents");
+            }
+            if (totals.getDiscount() < 0 || totals.getTotal() < 0) {
+                violation(customerId + "'s cart has a discount of " + totals.getDiscount() + " and a total of " + totals.getTotal() + " cents");
+            }
+        }
+
+        private void record(ShopperScript.Step step, long nanos) {
+            int index = step.ordinal();
+            if (latencyCounts[index] == latencies[index].length) {
+                latencies[index] = Arrays.copyOf(latencies[index], latencies[index].length * 2);
+            }
+            latencies[index][latencyCounts[index]++] = nanos;
+        }
+    }
+}
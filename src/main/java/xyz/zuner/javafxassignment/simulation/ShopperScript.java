@@ -0,0 +1,181 @@
+package xyz.zuner.javafxassignment.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>
+ * What a simulated shopper does on one visit to the store: a weighted, named sequence of steps.
+ * </p>
+ * <br>
+ * <p>Scripts are written as {@code name=weight:step,step,...}, where a step is one of {@code browse}, {@code add},
+ * {@code promo}, {@code checkout} or {@code abandon} and may be repeated with {@code *n}, e.g.
+ * {@code buyer=6:browse*3,add*2,promo,checkout}. The weight sets how often the script is picked relative to the
+ * others. A visit that ends without checking out abandons its cart.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see LoadSimulator
+ */
+public final class ShopperScript {
+
+    /**
+     * The scripts used unless others are given: most shoppers buy, some only browse, a few stack promotions.
+     */
+    public static final List<ShopperScript> DEFAULTS = List.of(
+            parse("buyer=6:browse*3,add*2,promo,checkout"),
+            parse("browser=3:browse*5,add,abandon"),
+            parse("bargain-hunter=1:browse*2,add*3,promo*2,checkout")
+    );
+
+    private final String name;
+    private final int weight;
+    private final List<Step> steps;
+
+    /**
+     * Creates a script.
+     *
+     * @param name   a name for the report
+     * @param weight how often the script is picked relative to the others
+     * @param steps  the steps in order
+     */
+    public ShopperScript(String name, int weight, List<Step> steps) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Script " + name + " needs a positive weight");
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("Script " + name + " has no steps");
+        }
+        this.name = name;
+        this.weight = weight;
+        this.steps = List.copyOf(steps);
+    }
+
+    /**
+     * Parses a script written as {@code name=weight:step,step,...}.
+     *
+     * @param spec the script
+     * @return ShopperScript
+     * @throws IllegalArgumentException if the script is malformed or names an unknown step
+     */
+    public static ShopperScript parse(String spec) {
+        int equals = spec.indexOf('=');
+        int colon = spec.indexOf(':', equals + 1);
+        if (equals <= 0 || colon < 0) {
+            throw new IllegalArgumentException("Invalid script " + spec + ", expected e.g. buyer=6:browse*3,add,checkout");
+        }
+        String name = spec.substring(0, equals).trim();
+        int weight;
+        try {
+            weight = Integer.parseInt(spec.substring(equals + 1, colon).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid weight in script " + spec);
+        }
+
+        List<Step> steps = new ArrayList<>();
+        for (String token : spec.substring(colon + 1).split(",")) {
+            String[] parts = token.trim().split("\\*");
+            int times = 1;
+            if (parts.length == 2) {
+                try {
+                    times = Integer.parseInt(parts[1].trim());
+                } catch (NumberFormatException e) {
+                    times = -1;
+                }
+            }
+            if (parts.length > 2 || times <= 0) {
+                throw new IllegalArgumentException("Invalid step " + token + " in script " + name);
+            }
+            Step step = Step.of(parts[0].trim());
+            for (int i = 0; i < times; i++) {
+                steps.add(step);
+            }
+        }
+        return new ShopperScript(name, weight, steps);
+    }
+
+    /**
+     * Gets the name of the script.
+     *
+     * @return String
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets how often the script is picked relative to the others.
+     *
+     * @return int
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets the steps in order.
+     *
+     * @return List of Step
+     */
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(name).append('=').append(weight).append(':');
+        for (int i = 0; i < steps.size(); ) {
+            int times = 1;
+            while (i + times < steps.size() && steps.get(i + times) == steps.get(i)) {
+                times++;
+            }
+            builder.append(i == 0 ? "" : ",").append(steps.get(i).name().toLowerCase(Locale.ROOT));
+            if (times > 1) {
+                builder.append('*').append(times);
+            }
+            i += times;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Something a shopper does.
+     */
+    public enum Step {
+        /**
+         * Lists a category or searches for a product by name.
+         */
+        BROWSE,
+        /**
+         * Picks options for one of the products last browsed and adds it to the cart.
+         */
+        ADD,
+        /**
+         * Enters one of the store's promo codes.
+         */
+        PROMO,
+        /**
+         * Checks out and prints the receipt.
+         */
+        CHECKOUT,
+        /**
+         * Empties the cart and leaves.
+         */
+        ABANDON;
+
+        static Step of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown step " + name + ", expected browse, add, promo, checkout or abandon");
+            }
+        }
+    }
+}
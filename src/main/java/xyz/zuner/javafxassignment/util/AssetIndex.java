@@ -0,0 +1,143 @@
+package xyz.zuner.javafxassignment.util;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * Index of the files bundled under a classpath asset directory. The directory is listed once when the index is
+ * created, after which checking whether an asset exists (and getting its URL) is a hash lookup instead of a classloader
+ * resource lookup.
+ * </p>
+ * <br>
+ * <p>If the directory cannot be listed (e.g. an unusual classloader), the index falls back to resolving each name
+ * through {@link Class#getResource(String)} once and remembering the result, hits and misses alike.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+public class AssetIndex {
+
+    public static final AssetIndex PRODUCT_IMAGES = new AssetIndex("/assets/product_images/");
+
+    private final String directory;
+    private final Map<String, Optional<String>> files = new ConcurrentHashMap<>();
+    private final boolean complete; // true if the directory listing succeeded and misses can be trusted
+
+    /**
+     * Lists the given classpath directory.
+     *
+     * @param directory absolute resource path of the directory, ending in '/'
+     */
+    public AssetIndex(String directory) {
+        this.directory = directory.endsWith("/") ? directory : directory + "/";
+        this.complete = scan();
+    }
+
+    /**
+     * Gets the external form URL of a file in the indexed directory.
+     *
+     * @param fileName the name of the file, e.g. "001.jpg"
+     * @return URL (String), or null if no such file is bundled
+     */
+    public String find(String fileName) {
+        Optional<String> url = files.get(fileName);
+        if (url != null) {
+            return url.orElse(null);
+        }
+        if (complete) {
+            return null;
+        }
+        return files.computeIfAbsent(fileName, name -> {
+            URL resource = AssetIndex.class.getResource(directory + name);
+            return Optional.ofNullable(resource).map(URL::toExternalForm);
+        }).orElse(null);
+    }
+
+    /**
+     * Checks whether a file is bundled in the indexed directory.
+     *
+     * @param fileName the name of the file
+     * @return boolean
+     */
+    public boolean contains(String fileName) {
+        return find(fileName) != null;
+    }
+
+    /**
+     * Gets the number of files found by the directory listing.
+     *
+     * @return int
+     */
+    public int size() {
+        return (int) files.values().stream().filter(Optional::isPresent).count();
+    }
+
+    /**
+     * Lists the directory, supporting exploded class directories, jar files and jlink runtime images.
+     *
+     * @return true if the listing succeeded
+     */
+    private boolean scan() {
+        URL dirUrl = AssetIndex.class.getResource(directory);
+        if (dirUrl == null) {
+            return false;
+        }
+        String base = dirUrl.toExternalForm();
+        if (!base.endsWith("/")) {
+            base += "/";
+        }
+
+        try {
+            if ("jar".equals(dirUrl.getProtocol())) {
+                URLConnection connection = dirUrl.openConnection();
+                if (!(connection instanceof JarURLConnection jarConnection)) {
+                    return false;
+                }
+                String prefix = directory.substring(1);
+                JarFile jar = jarConnection.getJarFile();
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String entry = entries.nextElement().getName();
+                    if (entry.startsWith(prefix) && entry.length() > prefix.length() && entry.indexOf('/', prefix.length()) < 0) {
+                        String name = entry.substring(prefix.length());
+                        files.put(name, Optional.of(base + name));
+                    }
+                }
+                return true;
+            }
+
+            // file: and jrt: URLs both map onto a file system path
+            try (Stream<Path> listing = Files.list(Path.of(dirUrl.toURI()))) {
+                String prefix = base;
+                listing.filter(Files::isRegularFile).forEach(path -> {
+                    String name = path.getFileName().toString();
+                    files.put(name, Optional.of(prefix + name));
+                });
+            }
+            return true;
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            System.err.println("Could not index " + directory + ", falling back to per-file lookups: " + e.getMessage());
+            files.clear();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package xyz.zuner.javafxassignment.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Loads product descriptions from the bundled {@code /assets/product_descriptions/<UPC>_desc.txt} resources and keeps
+ * the most recently used ones in memory, so receipts and description popups do not re-read the same file.
+ * </p>
+ * <br>
+ * <p>Whether a description exists is answered by an {@link AssetIndex}, so products without a description never touch
+ * the classloader at all. The cache holds 1024 descriptions by default, configurable with the
+ * {@code store.descriptionCache.size} system property.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+public class DescriptionStore {
+
+    public static final String NO_DESCRIPTION = "No description found for this product.";
+
+    private static final String DIRECTORY = "/assets/product_descriptions/";
+    private static final String SUFFIX = "_desc.txt";
+    private static final int MAX_ENTRIES = Integer.getInteger("store.descriptionCache.size", 1024);
+
+    private static final AssetIndex index = new AssetIndex(DIRECTORY);
+    private static final Map<String, String> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Gets the description of a product.
+     *
+     * @param upc the Universal Product Code of the product
+     * @return the description, or {@link #NO_DESCRIPTION} if none is bundled
+     */
+    public static String get(String upc) {
+        String fileName = upc + SUFFIX;
+        if (!index.contains(fileName)) {
+            return NO_DESCRIPTION;
+        }
+
+        synchronized (cache) {
+            String description = cache.get(upc);
+            if (description != null) {
+                return description;
+            }
+        }
+
+        // read outside the lock, a duplicate read on a race is harmless
+        String description = read(fileName);
+        synchronized (cache) {
+            cache.put(upc, description);
+        }
+        return description;
+    }
+
+    /**
+     * Checks whether a product has a bundled description, without reading it.
+     *
+     * @param upc the Universal Product Code of the product
+     * @return boolean
+     */
+    public static boolean has(String upc) {
+        return index.contains(upc + SUFFIX);
+    }
+
+    private static String read(String fileName) {
+        try (InputStream is = DescriptionStore.class.getResourceAsStream(DIRECTORY + fileName)) {
+            if (is == null) {
+                return NO_DESCRIPTION;
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8).strip();
+        } catch (IOException e) {
+            System.err.println("Error loading description " + fileName + ": " + e.getMessage());
+            return NO_DESCRIPTION;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package xyz.zuner.javafxassignment.util;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import xyz.zuner.javafxassignment.objects.Product;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Shared, size-bounded cache of pre-scaled product thumbnails. Images are decoded in the background at the size they
+ * are displayed at, views show the "no image" placeholder until the decode finishes, and the least recently used
+ * thumbnails are evicted once the configured byte budget is exceeded.
+ * </p>
+ * <br>
+ * <p>The budget defaults to 64MB and can be changed with the {@code store.imageCache.bytes} system property.</p>
+ * <p>All methods are expected to be called on the JavaFX application thread.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+public class ImageCache {
+
+    public static final int CARD_SIZE = 100; // thumbnail size used by the catalog cards
+    public static final int CART_SIZE = 50; // thumbnail size used by the cart rows
+
+    private static final String PLACEHOLDER_PATH = "/assets/product_images/no-image-available.jpg";
+    private static final String KEY_PROPERTY = "imageCache.key";
+    private static final long DEFAULT_BYTE_BUDGET = 64L * 1024 * 1024;
+    private static final int BYTES_PER_PIXEL = 4; // decoded images are stored as 32-bit ARGB
+
+    private static long byteBudget = Long.getLong("store.imageCache.bytes", DEFAULT_BYTE_BUDGET);
+    private static long usedBytes = 0;
+
+    // access-ordered so iteration starts at the least recently used entry
+    private static final LinkedHashMap<String, Image> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private static final Map<Integer, Image> placeholders = new HashMap<>();
+
+    /**
+     * Displays the thumbnail of a product in an image view. If the thumbnail is not decoded yet the placeholder is
+     * shown and swapped out once the background load completes, unless the view has been re-bound to another product
+     * in the meantime.
+     *
+     * @param view    the view to display the image in
+     * @param product the product whose thumbnail to show, or null to clear the view
+     * @param size    the target width and height in pixels
+     */
+    public static void load(ImageView view, Product product, int size) {
+        if (product == null) {
+            view.getProperties().remove(KEY_PROPERTY);
+            view.setImage(null);
+            return;
+        }
+
+        String key = keyOf(product.getUPC(), size);
+        view.getProperties().put(KEY_PROPERTY, key);
+
+        Image image = get(product, size);
+        if (isReady(image)) {
+            view.setImage(image);
+            return;
+        }
+
+        view.setImage(getPlaceholder(size));
+        if (image.isError()) {
+            return;
+        }
+        image.progressProperty().addListener(new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends Number> obs, Number oldVal, Number newVal) {
+                if (newVal.doubleValue() < 1.0) {
+                    return;
+                }
+                image.progressProperty().removeListener(this);
+                if (!image.isError() && key.equals(view.getProperties().get(KEY_PROPERTY))) {
+                    view.setImage(image);
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the thumbnail of a product at the given size, starting a background decode if it is not cached.
+     *
+     * @param product the product
+     * @param size    the target width and height in pixels
+     * @return Image, which may still be loading
+     */
+    public static Image get(Product product, int size) {
+        String key = keyOf(product.getUPC(), size);
+        Image image = cache.get(key);
+        if (image != null && !image.isError()) {
+            return image;
+        }
+        if (image != null) {
+            // failed decodes are not worth keeping around
+            remove(key);
+        }
+
+        image = new Image(product.getImagePath(), size, size, true, true, true);
+        cache.put(key, image);
+        usedBytes += estimateBytes(size);
+        evict();
+        return image;
+    }
+
+    /**
+     * Sets the maximum number of bytes of decoded image data to keep, evicting immediately if needed.
+     *
+     * @param bytes the new budget
+     */
+    public static void setByteBudget(long bytes) {
+        byteBudget = Math.max(0, bytes);
+        evict();
+    }
+
+    /**
+     * Gets the estimated number of bytes currently held by cached thumbnails.
+     *
+     * @return bytes (long)
+     */
+    public static long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Drops every cached thumbnail.
+     */
+    public static void clear() {
+        cache.clear();
+        usedBytes = 0;
+    }
+
+    private static Image getPlaceholder(int size) {
+        return placeholders.computeIfAbsent(size, s -> {
+            URL url = ImageCache.class.getResource(PLACEHOLDER_PATH);
+            return url != null ? new Image(url.toExternalForm(), s, s, true, true, false) : null;
+        });
+    }
+
+    private static boolean isReady(Image image) {
+        return image.getProgress() >= 1.0 && !image.isError();
+    }
+
+    private static void evict() {
+        Iterator<Map.Entry<String, Image>> it = cache.entrySet().iterator();
+        while (usedBytes > byteBudget && it.hasNext()) {
+            Map.Entry<String, Image> eldest = it.next();
+            usedBytes -= estimateBytes(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private static void remove(String key) {
+        Image removed = cache.remove(key);
+        if (removed != null) {
+            usedBytes -= estimateBytes(removed);
+        }
+    }
+
+    private static long estimateBytes(Image image) {
+        return estimateBytes((int) Math.max(image.getRequestedWidth(), image.getRequestedHeight()));
+    }
+
+    private static long estimateBytes(int size) {
+        // pre-scaled images never exceed size x size, so account for the worst case up front
+        return (long) size * size * BYTES_PER_PIXEL;
+    }
+
+    private static String keyOf(String upc, int size) {
+        return upc + '@' + size;
+    }
+}
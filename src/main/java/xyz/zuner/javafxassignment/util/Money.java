@@ -0,0 +1,185 @@
+package xyz.zuner.javafxassignment.util;
+
+import java.math.RoundingMode;
+
+/**
+ * <p>
+ * Fixed-point money arithmetic on amounts held as a {@code long} number of cents.
+ * </p>
+ * <br>
+ * <p>Sums of cents are exact, so a cart total does not drift no matter how many lines it has, and nothing here
+ * allocates. Rates (markup, tax, percentage discounts) are given in basis points, 1/100th of a percent, and every
+ * operation that can produce a fraction of a cent takes an explicit {@link RoundingMode}. Amounts only turn back into
+ * text at display time through {@link #format(long)}.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see PricingUtil
+ */
+public final class Money {
+
+    public static final long ZERO = 0;
+    public static final int BASIS_POINTS = 10_000; // basis points in 100%
+
+    private Money() {
+    }
+
+    /**
+     * Converts a dollar amount, e.g. a catalog price, to cents.
+     *
+     * @param dollars the amount in dollars
+     * @return cents (long), rounded half up
+     */
+    public static long ofDollars(double dollars) {
+        // Math.round is half up, the extra nudge stops values such as 1.005 (really 1.00499...) from rounding down
+        return Math.round(dollars * 100 + Math.copySign(1e-7, dollars));
+    }
+
+    /**
+     * Converts a rate given as a fraction, e.g. 0.07 for 7%, to basis points.
+     *
+     * @param rate the rate as a fraction
+     * @return basis points (int)
+     */
+    public static int ofRate(double rate) {
+        return (int) Math.round(rate * BASIS_POINTS);
+    }
+
+    /**
+     * Converts cents back to dollars, only meant for display and interop with code outside the pricing pipeline.
+     *
+     * @param cents the amount in cents
+     * @return dollars (double)
+     */
+    public static double toDollars(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Multiplies a unit price by a quantity.
+     *
+     * @param cents    the unit price in cents
+     * @param quantity the quantity
+     * @return cents (long)
+     * @throws ArithmeticException if the result overflows
+     */
+    public static long times(long cents, long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    /**
+     * Takes a percentage of an amount.
+     *
+     * @param cents       the amount in cents
+     * @param basisPoints the percentage in basis points
+     * @param rounding    how to round a fraction of a cent
+     * @return cents (long)
+     */
+    public static long percentOf(long cents, int basisPoints, RoundingMode rounding) {
+        return divide(Math.multiplyExact(cents, basisPoints), BASIS_POINTS, rounding);
+    }
+
+    /**
+     * Takes a fraction of an amount, e.g. the share of a total that belongs to some of the units.
+     *
+     * @param cents       the amount in cents
+     * @param numerator   the numerator of the fraction
+     * @param denominator the denominator of the fraction
+     * @param rounding    how to round a fraction of a cent
+     * @return cents (long)
+     */
+    public static long fractionOf(long cents, long numerator, long denominator, RoundingMode rounding) {
+        return divide(Math.multiplyExact(cents, numerator), denominator, rounding);
+    }
+
+    /**
+     * Divides two longs, rounding the quotient as requested.
+     *
+     * @param dividend the dividend
+     * @param divisor  the divisor, must not be zero
+     * @param rounding how to round the quotient
+     * @return long
+     * @throws ArithmeticException if the divisor is zero, or if rounding is needed under {@link RoundingMode#UNNECESSARY}
+     */
+    public static long divide(long dividend, long divisor, RoundingMode rounding) {
+        if (rounding == RoundingMode.HALF_UP && dividend >= 0 && divisor > 0 && dividend <= Long.MAX_VALUE - divisor) {
+            // the usual case for prices, one division instead of the general path below
+            return (dividend + (divisor >> 1)) / divisor;
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int sign = (dividend < 0) == (divisor < 0) ? 1 : -1; // sign of the exact result
+        long twiceRemainder = Math.abs(remainder) * 2; // compared against the divisor to find the half way point
+        long absDivisor = Math.abs(divisor);
+        boolean awayFromZero = switch (rounding) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> twiceRemainder >= absDivisor;
+            case HALF_DOWN -> twiceRemainder > absDivisor;
+            case HALF_EVEN -> twiceRemainder > absDivisor || (twiceRemainder == absDivisor && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+
+    /**
+     * Formats an amount as dollars and cents, e.g. {@code $1234.50} or {@code -$0.99}.
+     *
+     * @param cents the amount in cents
+     * @return String
+     */
+    public static String format(long cents) {
+        return format(new StringBuilder(16), cents).toString();
+    }
+
+    /**
+     * Gets the number of characters {@link #format(long)} produces for an amount, without formatting it.
+     *
+     * @param cents the amount in cents
+     * @return int
+     */
+    public static int formattedLength(long cents) {
+        int length = cents < 0 ? 5 : 4; // sign, '$', '.' and two digits of cents
+        long dollars = Math.abs(cents / 100);
+        do {
+            length++;
+            dollars /= 10;
+        } while (dollars > 0);
+        return length;
+    }
+
+    /**
+     * Appends an amount as dollars and cents to a builder.
+     *
+     * @param builder the builder to append to
+     * @param cents   the amount in cents
+     * @return the builder
+     */
+    public static StringBuilder format(StringBuilder builder, long cents) {
+        if (cents < 0) {
+            builder.append('-');
+        }
+        builder.append('$');
+        // work on the negative value so Long.MIN_VALUE does not overflow
+        long negative = cents < 0 ? cents : -cents;
+        long dollars = -(negative / 100);
+        int fraction = (int) -(negative % 100);
+        builder.append(dollars).append('.');
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction);
+    }
+}
@@ -0,0 +1,174 @@
+package xyz.zuner.javafxassignment.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>
+ * Case-insensitive prefix tree mapping string keys to values, used for search-as-you-type lookups. Every word of a
+ * key is indexed, so a prefix matches the start of any word (e.g. "pro" finds "Surface Pro"), and a multi-word prefix
+ * matches values that have a word starting with each of the query words.
+ * </p>
+ * <br>
+ * <p>Values are only stored on the node where their key ends, a lookup walks down to the prefix node and collects its
+ * subtree. Both insertion and removal are incremental.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+public class PrefixTrie<T> {
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * Indexes a value under every word of a key.
+     *
+     * @param key   the text to index, e.g. a product name
+     * @param value the value to return for matching prefixes
+     */
+    public void add(String key, T value) {
+        for (String word : wordsOf(key)) {
+            Node<T> node = root;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.childOrCreate(word.charAt(i));
+            }
+            if (node.values == null) {
+                node.values = new ArrayList<>(1);
+            }
+            node.values.add(value);
+        }
+    }
+
+    /**
+     * Removes a value previously indexed under a key.
+     *
+     * @param key   the text the value was indexed with
+     * @param value the value to remove
+     */
+    public void remove(String key, T value) {
+        for (String word : wordsOf(key)) {
+            Node<T> node = find(word);
+            if (node != null && node.values != null) {
+                node.values.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Finds every value with a word starting with each word of the given prefix.
+     *
+     * @param prefix the prefix to search for, case-insensitive
+     * @param limit  the maximum number of values to return
+     * @return values in no particular order, without duplicates
+     */
+    public List<T> find(String prefix, int limit) {
+        List<String> words = wordsOf(prefix);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        if (words.size() == 1) {
+            return new ArrayList<>(collect(words.get(0), limit));
+        }
+
+        LinkedHashSet<T> results = collect(words.get(0), Integer.MAX_VALUE);
+        for (int i = 1; i < words.size() && !results.isEmpty(); i++) {
+            results.retainAll(collect(words.get(i), Integer.MAX_VALUE));
+        }
+        List<T> list = new ArrayList<>(results);
+        return list.size() > limit ? list.subList(0, limit) : list;
+    }
+
+    private LinkedHashSet<T> collect(String word, int limit) {
+        LinkedHashSet<T> results = new LinkedHashSet<>();
+        Node<T> node = find(word);
+        if (node != null) {
+            collect(node, results, limit);
+        }
+        return results;
+    }
+
+    private Node<T> find(String word) {
+        Node<T> node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node;
+    }
+
+    private void collect(Node<T> node, Collection<T> results, int limit) {
+        if (node.values != null) {
+            for (T value : node.values) {
+                if (results.size() >= limit) {
+                    return;
+                }
+                results.add(value);
+            }
+        }
+        for (int i = 0; i < node.size && results.size() < limit; i++) {
+            collect(node.children[i], results, limit);
+        }
+    }
+
+    /**
+     * Splits a key into lower case words.
+     */
+    private static List<String> wordsOf(String key) {
+        List<String> words = new ArrayList<>();
+        for (String word : key.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Trie node with its children kept in a sorted array, which is far smaller than a map for the handful of
+     * children most nodes have.
+     */
+    private static class Node<T> {
+
+        private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+        private char[] keys = new char[0];
+        @SuppressWarnings("unchecked") // empty, and only ever holds Node<T> once copied into a larger array
+        private Node<T>[] children = (Node<T>[]) NO_CHILDREN;
+        private int size;
+        private List<T> values;
+
+        Node<T> child(char c) {
+            int i = Arrays.binarySearch(keys, 0, size, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node<T> childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, 0, size, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, at, keys, at + 1, size - at);
+            System.arraycopy(children, at, children, at + 1, size - at);
+            Node<T> node = new Node<>();
+            keys[at] = c;
+            children[at] = node;
+            size++;
+            return node;
+        }
+    }
+}
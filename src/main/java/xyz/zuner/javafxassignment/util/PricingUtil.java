@@ -2,11 +2,15 @@ package xyz.zuner.javafxassignment.util;
 
 import xyz.zuner.javafxassignment.objects.Product;
 
+import java.math.RoundingMode;
+
 /**
  * <p>
  * Pricing utility class for displaying marked up prices, and calculating discounts.
  * </p>
  * <br>
+ * <p>All amounts are in cents, see {@link Money}.</p>
+ * <br>
  * <p>21:198:102/02 Computers and Programming II</p>
  * <p>JavaFX Assignment</p>
  * <p>Rutgers ID: 199009651</p>
@@ -18,37 +22,39 @@ import xyz.zuner.javafxassignment.objects.Product;
  */
 public class PricingUtil {
 
-    private static final double MARKUP = 0.50; // apply a 50% mark up
-    private static final double TAX_RATE = 0.07; // sales tax rate
+    private static final int MARKUP = 5_000; // apply a 50% mark up, in basis points
+    private static final int TAX_RATE = 700; // sales tax rate, in basis points
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP; // rounding for fractions of a cent
 
     /**
      * Gets the manufacturer's suggested retail price (MSRP) for the product.
      *
      * @param product the product to get the MSRP for.
-     * @return MSRP (double)
+     * @return MSRP in cents (long)
      */
-    public static double getMSRP(Product product) {
-        return product.getPrice();
+    public static long getMSRP(Product product) {
+        return product.getPriceCents();
     }
 
     /**
      * Calculates the marked-up price for a single product.
      *
      * @param product the product to calculate the price for.
-     * @return marked-up price for a single unit of the product.
+     * @return marked-up price in cents for a single unit of the product.
      */
-    public static double getMarkedUpPrice(Product product) {
-        return product.getPrice() * (1 + MARKUP);
+    public static long getMarkedUpPrice(Product product) {
+        long msrp = product.getPriceCents();
+        return msrp + Money.percentOf(msrp, MARKUP, ROUNDING);
     }
 
     /**
      * Calculates the amount of tax that will be applied to the total cost.
      *
-     * @param total the total cost pre-tax
-     * @return the tax amount
+     * @param total the total cost pre-tax, in cents
+     * @return the tax amount in cents
      */
-    public static double calculateSalesTax(double total) {
-        return total * TAX_RATE;
+    public static long calculateSalesTax(long total) {
+        return Money.percentOf(total, TAX_RATE, ROUNDING);
     }
 
     /**
@@ -56,21 +62,20 @@ public class PricingUtil {
      *
      * @param product  the product to calculate the price for.
      * @param quantity the quantity of the product.
-     * @return total marked-up price for the specified quantity of the product before tax.
+     * @return total marked-up price in cents for the specified quantity of the product before tax.
      */
-    public static double getSubtotal(Product product, int quantity) {
-        double markedUpPrice = getMarkedUpPrice(product);
-        return markedUpPrice * quantity;
+    public static long getSubtotal(Product product, int quantity) {
+        return Money.times(getMarkedUpPrice(product), quantity);
     }
 
     /**
      * Calculates the after-tax price of the (marked-up) product.
      *
      * @param product the product to calculate the price for.
-     * @return the after-tax price on the marked-up price for a single unit of the product.
+     * @return the after-tax price in cents on the marked-up price for a single unit of the product.
      */
-    public static double getTotalPriceBeforeDiscount(Product product) {
-        double subtotal = getMarkedUpPrice(product);
+    public static long getTotalPriceBeforeDiscount(Product product) {
+        long subtotal = getMarkedUpPrice(product);
         return subtotal + calculateSalesTax(subtotal);
     }
 
@@ -79,22 +84,22 @@ public class PricingUtil {
      *
      * @param product  the product to calculate the total price for.
      * @param quantity the quantity of the product.
-     * @return total price for the specified quantity of the product, including tax.
+     * @return total price in cents for the specified quantity of the product, including tax.
      */
-    public static double getTotalPriceAfterTax(Product product, int quantity) {
-        double subtotal = getSubtotal(product, quantity);
+    public static long getTotalPriceAfterTax(Product product, int quantity) {
+        long subtotal = getSubtotal(product, quantity);
         return subtotal + calculateSalesTax(subtotal);
     }
 
     /**
      * Calculates the total price after a discount rate is applied.
      *
-     * @param totalPriceBeforeDiscount the total price before discount.
-     * @param discountRate             the discount rate to apply (as a decimal, e.g. 0.20 for 20%).
-     * @return total price after the discount.
+     * @param totalPriceBeforeDiscount the total price before discount, in cents.
+     * @param discountRate             the discount rate to apply in basis points (e.g. 2000 for 20%).
+     * @return total price in cents after the discount.
      */
-    public static double getTotalPriceAfterDiscount(double totalPriceBeforeDiscount, double discountRate) {
-        double discountAmount = totalPriceBeforeDiscount * discountRate;
+    public static long getTotalPriceAfterDiscount(long totalPriceBeforeDiscount, int discountRate) {
+        long discountAmount = Money.percentOf(totalPriceBeforeDiscount, discountRate, ROUNDING);
         return totalPriceBeforeDiscount - discountAmount;
     }
 }
@@ -0,0 +1,303 @@
+package xyz.zuner.javafxassignment.util;
+
+import xyz.zuner.javafxassignment.objects.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>
+ * In-memory inverted index over product names, categories, option values and descriptions, used by the search box.
+ * </p>
+ * <br>
+ * <p>Text is split into lower case alphanumeric tokens. Every query token has to match a document token, either
+ * exactly, as a prefix, or (if nothing else matches) within a small edit distance. Matches are ranked by which field
+ * they were found in and how close the match was.</p>
+ * <br>
+ * <p>Products can be added and removed at any time; removed products are tombstoned rather than purged from the
+ * posting lists. Queries may run on any thread concurrently with updates.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+public class ProductSearchIndex {
+
+    // field weights, a hit in the name counts far more than one in the description
+    private static final int NAME_WEIGHT = 8;
+    private static final int CATEGORY_WEIGHT = 4;
+    private static final int OPTION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // how much of a field's weight each kind of match keeps
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.6f;
+    private static final float FUZZY_MATCH = 0.3f;
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final List<Product> documents = new ArrayList<>();
+    private final Map<Product, Integer> documentIds = new IdentityHashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexes a product. Indexing a product that is already indexed re-indexes it.
+     *
+     * @param product the product to index
+     */
+    public void add(Product product) {
+        // build the term weights outside the lock, only the posting list updates need it
+        Map<String, Integer> weights = new TreeMap<>();
+        addTokens(product.getName(), NAME_WEIGHT, weights);
+        addTokens(product.getCategory(), CATEGORY_WEIGHT, weights);
+        product.getOptions().forEach((category, values) -> values.forEach(value -> addTokens(value, OPTION_WEIGHT, weights)));
+        if (DescriptionStore.has(product.getUPC())) {
+            addTokens(product.getDescription(), DESCRIPTION_WEIGHT, weights);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = documentIds.get(product);
+            if (previous != null) {
+                deleted.set(previous);
+            }
+            int id = documents.size();
+            documents.add(product);
+            documentIds.put(product, id);
+            weights.forEach((term, weight) -> terms.computeIfAbsent(term, t -> new Postings()).add(id, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a product from the index.
+     *
+     * @param product the product to remove
+     */
+    public void remove(Product product) {
+        lock.writeLock().lock();
+        try {
+            Integer id = documentIds.remove(product);
+            if (id != null) {
+                deleted.set(id);
+                documents.set(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param query the text typed by the user
+     * @param limit the maximum number of products to return
+     * @return matching products, best match first
+     */
+    public List<Product> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(query, tokens);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            float[] total = null;
+            float[] current = new float[documentCount];
+            int[] touched = new int[0];
+            int touchedCount = 0;
+
+            for (String token : tokens) {
+                Arrays.fill(current, 0f);
+                matchToken(token, current);
+
+                if (total == null) {
+                    // first token decides the candidate set
+                    total = current;
+                    current = new float[documentCount];
+                    touched = new int[16];
+                    for (int doc = 0; doc < documentCount; doc++) {
+                        if (total[doc] > 0 && !deleted.get(doc)) {
+                            if (touchedCount == touched.length) {
+                                touched = Arrays.copyOf(touched, touchedCount * 2);
+                            }
+                            touched[touchedCount++] = doc;
+                        }
+                    }
+                    continue;
+                }
+
+                // every later token narrows the candidates down
+                int kept = 0;
+                for (int i = 0; i < touchedCount; i++) {
+                    int doc = touched[i];
+                    if (current[doc] > 0) {
+                        total[doc] += current[doc];
+                        touched[kept++] = doc;
+                    }
+                }
+                touchedCount = kept;
+                if (touchedCount == 0) {
+                    break;
+                }
+            }
+
+            return topResults(total, touched, touchedCount, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of products currently indexed.
+     *
+     * @return int
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every document against one query token, keeping the best match per document. Exact and prefix matches
+     * come from a range of the sorted term dictionary; fuzzy matching is only tried if neither found anything.
+     */
+    private void matchToken(String token, float[] scores) {
+        boolean found = false;
+        SortedMap<String, Postings> prefixed = terms.subMap(token, token + Character.MAX_VALUE);
+        for (Map.Entry<String, Postings> entry : prefixed.entrySet()) {
+            float factor = entry.getKey().length() == token.length() ? EXACT_MATCH : PREFIX_MATCH;
+            found |= entry.getValue().score(factor, scores);
+        }
+        if (found || token.length() < 3) {
+            return;
+        }
+
+        int maxDistance = token.length() < 6 ? 1 : 2;
+        String first = token.substring(0, 1);
+        for (Map.Entry<String, Postings> entry : terms.subMap(first, first + Character.MAX_VALUE).entrySet()) {
+            String term = entry.getKey();
+            if (Math.abs(term.length() - token.length()) <= maxDistance && withinDistance(token, term, maxDistance)) {
+                entry.getValue().score(FUZZY_MATCH, scores);
+            }
+        }
+    }
+
+    private List<Product> topResults(float[] scores, int[] candidates, int count, int limit) {
+        // pack score and document id into one long so a primitive sort ranks them, scores are positive so their
+        // bit patterns sort in the same order as their values
+        long[] ranked = new long[count];
+        for (int i = 0; i < count; i++) {
+            int doc = candidates[i];
+            ranked[i] = ((long) Float.floatToIntBits(scores[doc]) << 32) | (Integer.MAX_VALUE - doc);
+        }
+        Arrays.sort(ranked);
+
+        List<Product> results = new ArrayList<>(Math.min(limit, count));
+        for (int i = count - 1; i >= 0 && results.size() < limit; i--) {
+            results.add(documents.get(Integer.MAX_VALUE - (int) ranked[i]));
+        }
+        return results;
+    }
+
+    private static void addTokens(String text, int weight, Map<String, Integer> weights) {
+        if (text == null) {
+            return;
+        }
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, tokens);
+        for (String token : tokens) {
+            weights.merge(token, weight, Math::max);
+        }
+    }
+
+    private static void tokenize(String text, List<String> tokens) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Bounded Levenshtein distance check, giving up as soon as a row exceeds the maximum distance.
+     */
+    private static boolean withinDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= max;
+    }
+
+    /**
+     * Growable posting list of document ids and the weight of the field the term was found in.
+     */
+    private static class Postings {
+
+        private int[] documents = new int[2];
+        private byte[] weights = new byte[2];
+        private int size;
+
+        void add(int document, int weight) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            documents[size] = document;
+            weights[size] = (byte) weight;
+            size++;
+        }
+
+        boolean score(float factor, float[] scores) {
+            for (int i = 0; i < size; i++) {
+                int doc = documents[i];
+                if (doc < scores.length) {
+                    scores[doc] = Math.max(scores[doc], weights[i] * factor);
+                }
+            }
+            return size > 0;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package xyz.zuner.javafxassignment.view;
+
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import xyz.zuner.javafxassignment.objects.Cart;
+import xyz.zuner.javafxassignment.objects.CartItem;
+import xyz.zuner.javafxassignment.util.ImageCache;
+import xyz.zuner.javafxassignment.util.Money;
+
+/**
+ * <p>
+ * Row displaying a single line of the cart. The row is built once when the line is added and then only refreshed
+ * with {@link #update()} when that line changes.
+ * </p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see xyz.zuner.javafxassignment.objects.CartListener
+ */
+public class CartItemRow extends HBox {
+
+    private final CartItem cartItem;
+    private final Spinner<Integer> quantitySpinner;
+    private final Label priceLabel = new Label();
+    private boolean updating; // set while the row itself moves the spinner
+
+    /**
+     * Builds the row for a cart line.
+     *
+     * @param cart     the cart the line belongs to, changed by the row's controls
+     * @param cartItem the line to display
+     */
+    public CartItemRow(Cart cart, CartItem cartItem) {
+        super(10);
+        this.cartItem = cartItem;
+        setAlignment(Pos.CENTER_LEFT);
+
+        ImageView productImage = new ImageView();
+        productImage.setFitWidth(ImageCache.CART_SIZE);
+        productImage.setFitHeight(ImageCache.CART_SIZE);
+        ImageCache.load(productImage, cartItem.getProduct(), ImageCache.CART_SIZE);
+
+        Label nameLabel = new Label(cartItem.getProduct().getName());
+        Label optionsLabel = new Label(cartItem.getSelectedOptions());
+        optionsLabel.setStyle("-fx-font-size: 8px;");
+
+        quantitySpinner = new Spinner<>(1, 100, cartItem.getQuantity());
+        quantitySpinner.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (updating) {
+                return;
+            }
+            if (oldValue > newValue) {
+                cart.decrementItem(cartItem);
+            } else if (newValue > oldValue) {
+                try {
+                    cart.incrementItem(cartItem);
+                } catch (IllegalArgumentException e) {
+                    cart.showErrorDialog("Error Adding Product", e.getMessage());
+                }
+            }
+            // snap back if the cart refused the change, e.g. when out of stock
+            update();
+        });
+
+        Button removeItem = new Button("X");
+        removeItem.setStyle("-fx-background-color: #ffff; -fx-text-fill: #ff0000");
+        removeItem.setOnAction(event -> cart.removeItem(cartItem));
+
+        getChildren().addAll(productImage, nameLabel, optionsLabel, quantitySpinner, priceLabel, removeItem);
+        update();
+    }
+
+    /**
+     * Refreshes the quantity and price shown from the line.
+     */
+    public void update() {
+        updating = true;
+        try {
+            quantitySpinner.getValueFactory().setValue(cartItem.getQuantity());
+        } finally {
+            updating = false;
+        }
+        priceLabel.setText(Money.format(cartItem.getSubtotal()));
+    }
+
+    /**
+     * Gets the line displayed by this row.
+     *
+     * @return CartItem
+     */
+    public CartItem getCartItem() {
+        return cartItem;
+    }
+}
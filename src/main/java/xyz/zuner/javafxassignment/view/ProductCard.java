@@ -0,0 +1,226 @@
+package xyz.zuner.javafxassignment.view;
+
+import javafx.collections.FXCollections;
+import javafx.geometry.Bounds;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import xyz.zuner.javafxassignment.objects.Product;
+import xyz.zuner.javafxassignment.util.ImageCache;
+import xyz.zuner.javafxassignment.util.Money;
+import xyz.zuner.javafxassignment.util.PricingUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ * Reusable card node for displaying a single product in the catalog. The card is built once and re-bound to
+ * whichever product scrolls into its slot, so the catalog never allocates more cards than are visible. The option
+ * controls are reused too: only their items and values change when the card is re-bound.
+ * </p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see ProductRowCell
+ */
+public class ProductCard extends VBox {
+
+    private final ImageView productImage = new ImageView();
+    private final Label nameLabel = new Label();
+    private final Label categoryLabel = new Label();
+    private final Label priceLabel = new Label();
+    private final VBox optionsBox = new VBox(10);
+    private final TextField quantityField = new TextField();
+    private final Button addButton = new Button("Add to Cart");
+    private final Button showDesc = new Button("Show Description");
+    private final List<OptionRow> optionRows = new ArrayList<>(); // grows to the most options any bound product had
+
+    private Product product;
+
+    /**
+     * Builds the (empty) card layout.
+     *
+     * @param onAddToCart called with the bound product and the raw text of the quantity field when "Add to Cart" is
+     *                    pressed
+     */
+    public ProductCard(BiConsumer<Product, String> onAddToCart) {
+        super(10);
+        setAlignment(Pos.CENTER);
+        setPadding(new Insets(15));
+        setStyle("-fx-border-color: lightgray; -fx-background-color: white;");
+
+        productImage.setFitHeight(ImageCache.CARD_SIZE);
+        productImage.setFitWidth(ImageCache.CARD_SIZE);
+        productImage.setPreserveRatio(true);
+
+        nameLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #333;");
+        priceLabel.setStyle("-fx-font-size: 14px;");
+        optionsBox.setAlignment(Pos.CENTER);
+
+        quantityField.setPromptText("Insert quantity here");
+        addButton.setOnAction(event -> {
+            if (product != null) {
+                onAddToCart.accept(product, quantityField.getText());
+            }
+        });
+        showDesc.setOnAction(event -> showDescription());
+
+        getChildren().addAll(
+                optionsBox,
+                productImage,
+                nameLabel,
+                categoryLabel,
+                priceLabel,
+                addButton,
+                quantityField,
+                showDesc
+        );
+    }
+
+    /**
+     * Binds the card to a product, replacing whatever was displayed before.
+     *
+     * @param product the product to display, or null to blank the card
+     */
+    public void bind(Product product) {
+        this.product = product;
+        optionsBox.getChildren().clear();
+        quantityField.clear();
+        for (OptionRow row : optionRows) {
+            row.unbind();
+        }
+
+        if (product == null) {
+            setVisible(false);
+            ImageCache.load(productImage, null, ImageCache.CARD_SIZE);
+            return;
+        }
+        setVisible(true);
+
+        ImageCache.load(productImage, product, ImageCache.CARD_SIZE);
+        nameLabel.setText(product.getName());
+        categoryLabel.setText("Category: " + product.getCategory());
+        priceLabel.setText(Money.format(PricingUtil.getMarkedUpPrice(product)));
+
+        int index = 0;
+        for (Map.Entry<String, List<String>> option : product.getOptions().entrySet()) {
+            if (index == optionRows.size()) {
+                optionRows.add(new OptionRow());
+            }
+            OptionRow row = optionRows.get(index++);
+            optionsBox.getChildren().addAll(row.label, row.bind(product, option.getKey(), option.getValue()));
+        }
+    }
+
+    /**
+     * Gets the product currently bound to this card.
+     *
+     * @return Product, or null if the card is blank
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    private static boolean shouldUseSpinnerForOption(String optionCategory) {
+        return "Size".equals(optionCategory) || "Storage".equals(optionCategory);
+    }
+
+    /**
+     * Shows the description popup beneath the card.
+     */
+    private void showDescription() {
+        if (product == null) {
+            return;
+        }
+        Popup popup = new Popup();
+        VBox content = new VBox(10);
+        content.setStyle("-fx-padding: 10; -fx-background-color: white; -fx-border-color: black; -fx-border-width: 2;");
+
+        Label descriptionLabel = new Label(product.getDescription() + "\nUPC: #" + product.getUPC());
+        content.getChildren().addAll(descriptionLabel);
+
+        popup.getContent().add(content);
+        popup.setAutoHide(true);
+        popup.setHideOnEscape(true);
+
+        Bounds boundsInScreen = localToScreen(getBoundsInLocal());
+        popup.show(this, boundsInScreen.getMinX(), boundsInScreen.getMaxY());
+    }
+
+    /**
+     * The label and selection controls for one option category, reused across products. Each row keeps both a spinner
+     * and a choice box and shows whichever the bound category uses, pre-selected with whatever the product already
+     * has selected so that recycled cards keep their state when scrolled back into view.
+     */
+    private static final class OptionRow {
+
+        private final Label label = new Label();
+        private final SpinnerValueFactory.ListSpinnerValueFactory<String> spinnerValues =
+                new SpinnerValueFactory.ListSpinnerValueFactory<>(FXCollections.observableArrayList());
+        private final Spinner<String> spinner = new Spinner<>();
+        private final ChoiceBox<String> choiceBox = new ChoiceBox<>();
+
+        private Product product;
+        private String optionCategory;
+        private boolean binding; // set while the controls are being filled, so the product is left alone
+
+        OptionRow() {
+            spinner.setValueFactory(spinnerValues);
+            spinner.setEditable(true);
+            spinner.valueProperty().addListener((obs, oldVal, newVal) -> select(newVal));
+            choiceBox.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> select(newVal));
+        }
+
+        /**
+         * Shows an option category of a product.
+         *
+         * @return the control to show next to the label
+         */
+        Control bind(Product product, String optionCategory, List<String> options) {
+            this.product = product;
+            this.optionCategory = optionCategory;
+            label.setText(optionCategory + ":");
+            String selected = product.getSelectedOption(optionCategory);
+            binding = true;
+            try {
+                if (shouldUseSpinnerForOption(optionCategory)) {
+                    spinnerValues.getItems().setAll(options);
+                    spinnerValues.setValue(selected != null ? selected : options.isEmpty() ? null : options.get(0));
+                    return spinner;
+                }
+                choiceBox.getItems().setAll(options);
+                if (selected != null) {
+                    choiceBox.getSelectionModel().select(selected);
+                } else {
+                    choiceBox.getSelectionModel().clearSelection();
+                }
+                return choiceBox;
+            } finally {
+                binding = false;
+            }
+        }
+
+        void unbind() {
+            product = null;
+            optionCategory = null;
+        }
+
+        private void select(String value) {
+            if (!binding && product != null) {
+                product.setSelectedOption(optionCategory, value);
+            }
+        }
+    }
+}
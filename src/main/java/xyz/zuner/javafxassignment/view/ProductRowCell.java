@@ -0,0 +1,96 @@
+package xyz.zuner.javafxassignment.view;
+
+import javafx.geometry.Insets;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import xyz.zuner.javafxassignment.objects.Product;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ * List cell that renders one row of the product catalog. The owning ListView only creates enough cells to fill the
+ * viewport and recycles them while scrolling, so each cell keeps a fixed set of {@link ProductCard} nodes and simply
+ * re-binds them in {@link #updateItem(List, boolean)}.
+ * </p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see ProductCard
+ */
+public class ProductRowCell extends ListCell<List<Product>> {
+
+    private final HBox row;
+    private final ProductCard[] cards;
+
+    /**
+     * Creates a row cell with a fixed number of card slots.
+     *
+     * @param columns     the number of cards per row
+     * @param onAddToCart the add to cart handler passed on to every card
+     */
+    public ProductRowCell(int columns, BiConsumer<Product, String> onAddToCart) {
+        row = new HBox(10);
+        row.setPadding(new Insets(0, 0, 10, 0));
+        cards = new ProductCard[columns];
+        for (int i = 0; i < columns; i++) {
+            cards[i] = new ProductCard(onAddToCart);
+            HBox.setHgrow(cards[i], Priority.ALWAYS);
+            cards[i].setMaxWidth(Double.MAX_VALUE);
+            row.getChildren().add(cards[i]);
+        }
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+    }
+
+    @Override
+    protected void updateItem(List<Product> products, boolean empty) {
+        super.updateItem(products, empty);
+
+        if (empty || products == null) {
+            for (ProductCard card : cards) {
+                card.bind(null);
+            }
+            setGraphic(null);
+            return;
+        }
+
+        for (int i = 0; i < cards.length; i++) {
+            cards[i].bind(i < products.size() ? products.get(i) : null);
+        }
+        setGraphic(row);
+    }
+
+    /**
+     * Returns a lightweight row view over a product list. No products are copied, each row is a sub list view that is
+     * only materialized when a cell asks for it.
+     *
+     * @param products the products to lay out
+     * @param columns  the number of products per row
+     * @return List of rows
+     */
+    public static List<List<Product>> rowsOf(List<Product> products, int columns) {
+        return new AbstractList<>() {
+            @Override
+            public List<Product> get(int index) {
+                int from = index * columns;
+                return products.subList(from, Math.min(from + columns, products.size()));
+            }
+
+            @Override
+            public int size() {
+                return (products.size() + columns - 1) / columns;
+            }
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package xyz.zuner.javafxassignment.view;
+
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.StackedBarChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import xyz.zuner.javafxassignment.objects.Inventory;
+import xyz.zuner.javafxassignment.objects.Product;
+import xyz.zuner.javafxassignment.objects.SalesAnalytics;
+import xyz.zuner.javafxassignment.util.Money;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Dashboard of today's sales: revenue by category per hour and the best-selling products.
+ * </p>
+ * <br>
+ * <p>The figures are aggregated in the background when the dashboard is refreshed, the charts are only swapped in
+ * once they are ready.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ * @see SalesAnalytics
+ */
+public class SalesDashboard extends BorderPane {
+
+    private static final int TOP_PRODUCTS = 10;
+
+    private final SalesAnalytics analytics;
+    private final Inventory inventory;
+    private final Label summaryLabel = new Label();
+    private final StackedBarChart<String, Number> hourlyChart;
+    private final ListView<String> topProducts = new ListView<>();
+    private Task<Report> refreshTask;
+
+    /**
+     * Builds the dashboard. It stays empty until the first {@link #refresh()}.
+     *
+     * @param analytics the sales to show
+     * @param inventory used to look up product names
+     */
+    public SalesDashboard(SalesAnalytics analytics, Inventory inventory) {
+        this.analytics = analytics;
+        this.inventory = inventory;
+        setPadding(new Insets(10));
+
+        Button refreshButton = new Button("Refresh");
+        refreshButton.setOnAction(event -> refresh());
+        HBox header = new HBox(10, refreshButton, summaryLabel);
+        header.setAlignment(Pos.CENTER_LEFT);
+        header.setPadding(new Insets(0, 0, 10, 0));
+
+        CategoryAxis hourAxis = new CategoryAxis();
+        hourAxis.setLabel("Hour");
+        NumberAxis revenueAxis = new NumberAxis();
+        revenueAxis.setLabel("Revenue ($)");
+        hourlyChart = new StackedBarChart<>(hourAxis, revenueAxis);
+        hourlyChart.setTitle("Revenue by category per hour");
+        hourlyChart.setAnimated(false);
+
+        Label topLabel = new Label("Top products by units");
+        topLabel.setStyle("-fx-font-weight: bold;");
+        topProducts.setPrefWidth(260);
+        VBox side = new VBox(5, topLabel, topProducts);
+        side.setPadding(new Insets(0, 0, 0, 10));
+
+        setTop(header);
+        setCenter(hourlyChart);
+        setRight(side);
+    }
+
+    /**
+     * Aggregates today's sales in the background and shows them once done. A refresh still running is cancelled.
+     */
+    public void refresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+        }
+        Task<Report> task = new Task<>() {
+            @Override
+            protected Report call() {
+                return aggregate(LocalDate.now().atStartOfDay());
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (task == refreshTask) {
+                show(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> System.err.println("Error aggregating sales: " + task.getException().getMessage()));
+        refreshTask = task;
+
+        Thread thread = new Thread(task, "sales-dashboard");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs the queries for one day. Does not touch any UI state.
+     */
+    private Report aggregate(LocalDateTime day) {
+        long started = System.nanoTime();
+        SalesAnalytics.Breakdown hourly = analytics.breakdown(SalesAnalytics.Dimension.CATEGORY, SalesAnalytics.Measure.REVENUE, day, 3600, 24);
+        Map<String, Long> units = analytics.total(SalesAnalytics.Dimension.UPC, SalesAnalytics.Measure.UNITS, day, day.plusDays(1));
+
+        List<String> top = new ArrayList<>(TOP_PRODUCTS);
+        for (Map.Entry<String, Long> entry : units.entrySet()) {
+            if (top.size() == TOP_PRODUCTS) {
+                break;
+            }
+            Product product = inventory.getProductByUPC(entry.getKey());
+            top.add(entry.getValue() + " x " + (product == null ? entry.getKey() : product.getName()));
+        }
+        return new Report(hourly, top, units.values().stream().mapToLong(Long::longValue).sum(), System.nanoTime() - started);
+    }
+
+    private void show(Report report) {
+        SalesAnalytics.Breakdown hourly = report.hourly();
+        long revenue = 0;
+        List<XYChart.Series<String, Number>> series = new ArrayList<>();
+        for (int key = 0; key < hourly.getKeys().size(); key++) {
+            XYChart.Series<String, Number> category = new XYChart.Series<>();
+            category.setName(hourly.getKeys().get(key));
+            long categoryRevenue = 0;
+            for (int hour = 0; hour < hourly.getBuckets(); hour++) {
+                long cents = hourly.get(hour, key);
+                categoryRevenue += cents;
+                category.getData().add(new XYChart.Data<>(String.format("%02d", hour), Money.toDollars(cents)));
+            }
+            if (categoryRevenue > 0) {
+                series.add(category);
+                revenue += categoryRevenue;
+            }
+        }
+        hourlyChart.getData().setAll(series);
+        topProducts.getItems().setAll(report.topProducts());
+        summaryLabel.setText("Today: " + report.units() + " units, " + Money.format(revenue)
+                + String.format(" (aggregated in %.1f ms)", report.nanos() / 1e6));
+    }
+
+    private record Report(SalesAnalytics.Breakdown hourly, List<String> topProducts, long units, long nanos) {
+    }
+}
@@ -0,0 +1,105 @@
+package xyz.zuner.javafxassignment.objects;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * Parsing tests for the streaming {@link CatalogLoader}.
+ * </p>
+ * <br>
+ * <p>Covers quoted fields, the optional options column, and rows that must be skipped without stopping the load.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+class CatalogLoaderTest {
+
+    private static final String HEADER = "upc,name,price,stock,category,options\n";
+
+    @Test
+    void parsesEveryColumn() throws IOException {
+        List<Product> products = load(HEADER + "001,iPhone 15,499.99,12,Smartphones,Color=Black|Blue;Storage=64GB|128GB\n");
+
+        assertEquals(1, products.size());
+        Product phone = products.get(0);
+        assertEquals("001", phone.getUPC());
+        assertEquals("iPhone 15", phone.getName());
+        assertEquals(499.99, phone.getPrice());
+        assertEquals(12, phone.getOnHand());
+        assertEquals("Smartphones", phone.getCategory());
+        assertEquals(Map.of("Color", List.of("Black", "Blue"), "Storage", List.of("64GB", "128GB")), phone.getOptions());
+    }
+
+    @Test
+    void quotedFieldsMayHoldCommasAndQuotes() throws IOException {
+        List<Product> products = load(HEADER + "002,\"Cable, 2m \"\"braided\"\"\",9.99,4,Accessories,\n");
+
+        assertEquals("Cable, 2m \"braided\"", products.get(0).getName());
+        assertTrue(products.get(0).getOptions().isEmpty());
+    }
+
+    @Test
+    void optionsColumnMayBeLeftOut() throws IOException {
+        List<Product> products = load(HEADER + "003,Mouse,19.99,8,Accessories\n");
+
+        assertEquals(1, products.size());
+        assertTrue(products.get(0).getOptions().isEmpty());
+    }
+
+    @Test
+    void badRowsAreSkipped() throws IOException {
+        List<Product> products = new ArrayList<>();
+        CatalogLoader.Result result = new CatalogLoader().load(new BufferedReader(new StringReader(HEADER
+                + "004,Too,Few\n"
+                + "005,Bad Price,abc,1,Test,\n"
+                + "006,Negative,1.00,-1,Test,\n"
+                + ",No UPC,1.00,1,Test,\n"
+                + "\n"
+                + "007,Good,1.00,1,Test,\n")), "test.csv", products::add);
+
+        assertEquals(1, result.getLoaded());
+        assertEquals(4, result.getSkipped());
+        assertEquals("007", products.get(0).getUPC());
+    }
+
+    @Test
+    void parseRejectsTooFewColumns() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new CatalogLoader().parse("008,Short,1.00,1"));
+        assertTrue(e.getMessage().contains("expected 5 or 6 columns"), e.getMessage());
+    }
+
+    @Test
+    void repeatedStringsAreShared() throws IOException {
+        List<Product> products = load(HEADER
+                + "009,Case A,9.99,1,Accessories,Color=Black|Blue\n"
+                + "010,Case B,9.99,1,Accessories,Color=Black|Blue\n");
+
+        assertSame(products.get(0).getCategory(), products.get(1).getCategory());
+        assertSame(products.get(0).getOptions().get("Color"), products.get(1).getOptions().get("Color"));
+    }
+
+    private static List<Product> load(String csv) throws IOException {
+        List<Product> products = new ArrayList<>();
+        new CatalogLoader().load(new BufferedReader(new StringReader(csv)), "test.csv", products::add);
+        return products;
+    }
+}
@@ -0,0 +1,118 @@
+package xyz.zuner.javafxassignment.objects;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <p>
+ * Round trip tests for the binary {@link CatalogSnapshot}.
+ * </p>
+ * <br>
+ * <p>A snapshot must give back every product as it was written, including the stock levels it was given and the
+ * journal generation, and must be refused once the source catalog changes or the file is damaged.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+class CatalogSnapshotTest {
+
+    private static final long SOURCE_SIZE = 1234;
+    private static final long SOURCE_MODIFIED = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void productsRoundTrip() throws IOException {
+        List<String> colors = List.of("Black", "Blue");
+        Product phone = new Product("Phone, \"Pro\"", "001", 499.99, 10, "Smartphones");
+        phone.addOption("Color", colors);
+        phone.addOption("Storage", List.of("64GB", "128GB"));
+        Product cover = new Product("Case", "002", 19.5, 3, "Accessories");
+        cover.addOption("Color", colors);
+        Product laptop = new Product("Laptop édition", "003", 999.99, 0, "Laptops");
+
+        Path snapshot = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(snapshot, List.of(phone, cover, laptop), new int[]{7, 3, 1}, SOURCE_SIZE, SOURCE_MODIFIED, 42);
+
+        List<Product> read = new ArrayList<>();
+        CatalogLoader.Result result = CatalogSnapshot.read(snapshot, SOURCE_SIZE, SOURCE_MODIFIED, read::add);
+        assertNotNull(result);
+        assertEquals(3, result.getLoaded());
+        assertEquals(42, CatalogSnapshot.journalGeneration(snapshot));
+
+        assertEquals(List.of("001", "002", "003"), read.stream().map(Product::getUPC).toList());
+        Product readPhone = read.get(0);
+        assertEquals("Phone, \"Pro\"", readPhone.getName());
+        assertEquals(499.99, readPhone.getPrice());
+        assertEquals("Smartphones", readPhone.getCategory());
+        assertEquals(phone.getOptions(), readPhone.getOptions());
+        assertEquals("Laptop édition", read.get(2).getName());
+        assertEquals(List.of(7, 3, 1), read.stream().map(Product::getOnHand).toList());
+        // option value lists shared between products stay shared
+        assertSame(readPhone.getOptions().get("Color"), read.get(1).getOptions().get("Color"));
+    }
+
+    @Test
+    void staleOrCorruptSnapshotIsRefused() throws IOException {
+        Path snapshot = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(snapshot, List.of(new Product("Phone", "001", 1.0, 1, "Smartphones")), SOURCE_SIZE, SOURCE_MODIFIED);
+
+        assertNull(CatalogSnapshot.read(snapshot, SOURCE_SIZE + 1, SOURCE_MODIFIED, product -> {
+        }));
+        assertNull(CatalogSnapshot.read(snapshot, SOURCE_SIZE, SOURCE_MODIFIED + 1, product -> {
+        }));
+        assertNull(CatalogSnapshot.read(directory.resolve("missing.snapshot"), SOURCE_SIZE, SOURCE_MODIFIED, product -> {
+        }));
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(snapshot, bytes);
+        assertNull(CatalogSnapshot.read(snapshot, SOURCE_SIZE, SOURCE_MODIFIED, product -> {
+        }));
+    }
+
+    @Test
+    void optionCountIsUnsigned() throws IOException {
+        Product product = withOptions(200);
+        Path snapshot = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(snapshot, List.of(product), SOURCE_SIZE, SOURCE_MODIFIED);
+
+        List<Product> read = new ArrayList<>();
+        assertNotNull(CatalogSnapshot.read(snapshot, SOURCE_SIZE, SOURCE_MODIFIED, read::add));
+        assertEquals(200, read.get(0).getOptions().size());
+    }
+
+    @Test
+    void tooManyOptionsAreRejected() {
+        Path snapshot = directory.resolve("catalog.snapshot");
+        assertThrows(IOException.class,
+                () -> CatalogSnapshot.write(snapshot, List.of(withOptions(256)), SOURCE_SIZE, SOURCE_MODIFIED));
+    }
+
+    private static Product withOptions(int count) {
+        Product product = new Product("Configurable", "900", 1.0, 1, "Test");
+        for (int i = 0; i < count; i++) {
+            product.addOption("Option " + i, List.of("A", "B"));
+        }
+        return product;
+    }
+}
@@ -0,0 +1,138 @@
+package xyz.zuner.javafxassignment.objects;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * <p>
+ * Stress tests for the lock-free stock counters of {@link Product}.
+ * </p>
+ * <br>
+ * <p>Many threads reserve, release, commit and take stock of the same product at once while a watcher keeps reading
+ * the counters. The available stock must never be seen below zero, and once the threads are done every unit must be
+ * accounted for: what is left plus what was sold is what the product started with.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 50_000;
+
+    @Test
+    void stockNeverGoesNegativeAndIsConserved() throws InterruptedException {
+        int initial = 500;
+        Product product = new Product("Stress", "STRESS-1", 1.00, initial, "Test");
+        LongAdder sold = new LongAdder();
+        AtomicBoolean negativeSeen = new AtomicBoolean();
+
+        run(THREADS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS; i++) {
+                int quantity = random.nextInt(1, 4);
+                switch (random.nextInt(4)) {
+                    case 0, 1 -> {
+                        if (product.tryReserve(quantity)) {
+                            if (random.nextBoolean()) {
+                                product.release(quantity);
+                            } else {
+                                product.commit(quantity);
+                                sold.add(quantity);
+                            }
+                        }
+                    }
+                    case 2 -> {
+                        try {
+                            product.reduceStock(quantity); // takes the stock without a reservation
+                            sold.add(quantity);
+                        } catch (IllegalArgumentException e) {
+                            // not enough left, nothing was taken
+                        }
+                    }
+                    default -> {
+                        // keep the product from selling out so reservations keep contending
+                        if (product.getStock() < 10) {
+                            product.add(quantity);
+                            sold.add(-quantity);
+                        }
+                    }
+                }
+            }
+        }, () -> {
+            if (product.getStock() < 0 || product.getReserved() < 0) {
+                negativeSeen.set(true);
+            }
+        });
+
+        assertFalse(negativeSeen.get(), "stock or reserved count was seen below zero");
+        assertEquals(0, product.getReserved());
+        assertEquals(product.getOnHand(), product.getStock() + product.getReserved());
+        assertEquals(initial, product.getStock() + product.getReserved() + sold.sum());
+    }
+
+    @Test
+    void contendedReservationsNeverOversell() throws InterruptedException {
+        int initial = 1000;
+        Product product = new Product("Stress", "STRESS-2", 1.00, initial, "Test");
+        AtomicInteger reserved = new AtomicInteger();
+
+        run(THREADS, () -> {
+            while (product.tryReserve(1)) {
+                reserved.incrementAndGet();
+            }
+        }, () -> {
+        });
+
+        assertEquals(initial, reserved.get());
+        assertEquals(0, product.getStock());
+        assertEquals(initial, product.getReserved());
+        assertEquals(initial, product.getOnHand());
+    }
+
+    /**
+     * Starts the workers together and runs the watcher over and over until they are done.
+     */
+    private static void run(int threads, Runnable worker, Runnable watcher) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    worker.run();
+                } catch (Throwable t) {
+                    synchronized (failures) {
+                        failures.add(t);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "stock-stress-" + i);
+            thread.start();
+        }
+        start.countDown();
+        while (done.getCount() > 0) {
+            watcher.run();
+        }
+        watcher.run();
+        assertEquals(List.of(), failures);
+    }
+}
@@ -0,0 +1,199 @@
+package xyz.zuner.javafxassignment.objects;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * Tests for the search done by {@link PromotionResolver}.
+ * </p>
+ * <br>
+ * <p>The pruned, memoized search must find the same saving as trying every allowed combination by brute force, must
+ * not depend on the order the codes were entered in, and must stay fast with many candidates.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+class PromotionResolverTest {
+
+    // the order the resolver applies stacked discounts in: flat amounts last, ties by code
+    private static final Comparator<DiscountRule> APPLICATION_ORDER = Comparator
+            .comparing((DiscountRule rule) -> rule.getDiscount().getType() == Discount.DiscountType.FLAT)
+            .thenComparing(rule -> rule.getDiscount().getCode());
+
+    @Test
+    void singleDiscountWhenNothingStacks() {
+        PromotionResolver resolver = new PromotionResolver(new PromotionResolver.StackingRules(3, 3, true));
+        DiscountRule tenPercent = rule(percentage("TEN", 0.10, false));
+        DiscountRule fiveDollars = rule(flat("FIVE", 5.00, false));
+
+        PromotionResolver.Plan plan = resolver.resolveLine(new DiscountRule[]{tenPercent, fiveDollars}, 10_000, 1);
+        assertEquals(1000, plan.getAmountOff());
+        assertEquals(List.of(tenPercent.getDiscount()), plan.getDiscounts());
+    }
+
+    @Test
+    void stackedDiscountsApplyPercentagesFirst() {
+        PromotionResolver resolver = new PromotionResolver(new PromotionResolver.StackingRules(2, 2, true));
+        DiscountRule fiveDollars = rule(flat("FIVE", 5.00, true));
+        DiscountRule tenPercent = rule(percentage("TEN", 0.10, true));
+
+        PromotionResolver.Plan plan = resolver.resolveLine(new DiscountRule[]{fiveDollars, tenPercent}, 10_000, 1);
+        // 10% of $100.00, then $5.00 off what is left
+        assertEquals(1500, plan.getAmountOff());
+        assertEquals(List.of(tenPercent.getDiscount(), fiveDollars.getDiscount()), plan.getDiscounts());
+    }
+
+    @Test
+    void stackingLimitIsRespected() {
+        PromotionResolver resolver = new PromotionResolver(new PromotionResolver.StackingRules(2, 1, true));
+        DiscountRule[] rules = {
+                rule(flat("A", 10.00, true)), rule(flat("B", 20.00, true)), rule(flat("C", 30.00, true))
+        };
+
+        assertEquals(5000, resolver.resolveLine(rules, 100_000, 1).getAmountOff());
+        assertEquals(3000, resolver.resolveCart(rules, 100_000).getAmountOff());
+        // never more than the amount itself
+        assertEquals(4000, resolver.resolveLine(rules, 4000, 1).getAmountOff());
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            int limit = random.nextInt(1, 5);
+            PromotionResolver resolver = new PromotionResolver(new PromotionResolver.StackingRules(limit, limit, true));
+            DiscountRule[] candidates = randomRules(random, random.nextInt(1, 13));
+            long amount = random.nextLong(100, 200_000);
+            int quantity = random.nextInt(1, 7);
+
+            long expected = bruteForce(candidates, amount, quantity, limit);
+            PromotionResolver.Plan plan = resolver.resolveLine(candidates, amount, quantity);
+            assertEquals(expected, plan.getAmountOff(), "round " + round + ": " + Arrays.toString(candidates));
+            assertEquals(expected, replay(plan, amount, quantity), "the plan does not add up to its saving");
+
+            // the codes may be entered in any order
+            List<DiscountRule> shuffled = new ArrayList<>(Arrays.asList(candidates));
+            Collections.shuffle(shuffled, random);
+            assertEquals(expected, resolver.resolveLine(shuffled.toArray(new DiscountRule[0]), amount, quantity).getAmountOff());
+        }
+    }
+
+    @Test
+    void manyCandidatesArePruned() {
+        Random random = new Random(11);
+        DiscountRule[] candidates = randomRules(random, 5000);
+        PromotionResolver resolver = new PromotionResolver(new PromotionResolver.StackingRules(6, 6, true));
+
+        PromotionResolver.Plan plan = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> resolver.resolveCart(candidates, 1_000_000));
+        assertTrue(plan.getDiscounts().size() <= 6);
+        assertEquals(plan.getAmountOff(), replay(plan, 1_000_000, 1));
+
+        // the best six flat amounts and the best six percentages are all that can matter
+        DiscountRule[] small = Arrays.copyOf(candidates, 40);
+        PromotionResolver narrow = new PromotionResolver(new PromotionResolver.StackingRules(3, 3, true));
+        assertEquals(bruteForce(small, 1_000_000, 1, 3), narrow.resolveCart(small, 1_000_000).getAmountOff());
+    }
+
+    /**
+     * Tries every single discount and every allowed combination of stackable ones.
+     */
+    private static long bruteForce(DiscountRule[] candidates, long amount, int quantity, int limit) {
+        long best = 0;
+        for (DiscountRule rule : candidates) {
+            best = Math.max(best, off(rule, amount, quantity));
+        }
+        List<DiscountRule> stackable = new ArrayList<>();
+        for (DiscountRule rule : candidates) {
+            if (rule.getDiscount().isStackable()) {
+                stackable.add(rule);
+            }
+        }
+        stackable.sort(APPLICATION_ORDER);
+        return Math.max(best, combinations(stackable, 0, limit, amount, quantity));
+    }
+
+    private static long combinations(List<DiscountRule> rules, int from, int slots, long amount, int quantity) {
+        long best = 0;
+        if (slots == 0 || amount <= 0) {
+            return best;
+        }
+        for (int i = from; i < rules.size(); i++) {
+            long off = off(rules.get(i), amount, quantity);
+            best = Math.max(best, off + combinations(rules, i + 1, slots - 1, amount - off, quantity));
+        }
+        return best;
+    }
+
+    /**
+     * Applies a plan's discounts one after another and adds up what they take off.
+     */
+    private static long replay(PromotionResolver.Plan plan, long amount, int quantity) {
+        long total = 0;
+        for (Discount discount : plan.getDiscounts()) {
+            long off = off(discount.getRule(), amount, quantity);
+            total += off;
+            amount -= off;
+        }
+        return total;
+    }
+
+    private static long off(DiscountRule rule, long amount, int quantity) {
+        return Math.max(0, Math.min(amount, rule.amountOff(amount, quantity)));
+    }
+
+    private static DiscountRule[] randomRules(Random random, int count) {
+        DiscountRule[] rules = new DiscountRule[count];
+        for (int i = 0; i < count; i++) {
+            String code = "CODE" + i;
+            boolean stackable = random.nextInt(4) != 0;
+            Discount discount = switch (random.nextInt(3)) {
+                case 0 -> percentage(code, random.nextInt(1, 51) / 100.0, stackable);
+                case 1 -> flat(code, random.nextInt(1, 5001) / 100.0, stackable);
+                default -> {
+                    Discount bogo = new Discount(code, Discount.DiscountType.BOGO_PERCENTAGE, random.nextInt(1, 4),
+                            random.nextInt(10, 101) / 100.0, false, Set.of());
+                    bogo.setStackable(stackable);
+                    yield bogo;
+                }
+            };
+            rules[i] = rule(discount);
+        }
+        return rules;
+    }
+
+    private static Discount percentage(String code, double rate, boolean stackable) {
+        Discount discount = new Discount(code, rate, true, false, Set.of());
+        discount.setStackable(stackable);
+        return discount;
+    }
+
+    private static Discount flat(String code, double dollars, boolean stackable) {
+        Discount discount = new Discount(code, dollars, false, false, Set.of());
+        discount.setStackable(stackable);
+        return discount;
+    }
+
+    private static DiscountRule rule(Discount discount) {
+        return discount.getRule();
+    }
+}
@@ -0,0 +1,137 @@
+package xyz.zuner.javafxassignment.objects;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * <p>
+ * Tests for the usage limits and validity periods enforced by {@link RedemptionLedger}.
+ * </p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+class RedemptionLedgerTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Test
+    void maxUsesIsEnforced() {
+        RedemptionLedger ledger = new RedemptionLedger();
+        Discount discount = discount("LIMITED", 2, 0);
+
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.tryRedeem(discount, null, NOW));
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.tryRedeem(discount, "alice", NOW));
+        assertEquals(RedemptionLedger.Status.SOLD_OUT, ledger.check(discount, "bob", NOW));
+        assertEquals(RedemptionLedger.Status.SOLD_OUT, ledger.tryRedeem(discount, "bob", NOW));
+        assertEquals(2, ledger.getRedemptions("LIMITED"));
+
+        ledger.refund(discount, "alice");
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.tryRedeem(discount, "bob", NOW));
+        assertEquals(2, ledger.getRedemptions("LIMITED"));
+    }
+
+    @Test
+    void perCustomerLimitIsEnforced() {
+        RedemptionLedger ledger = new RedemptionLedger();
+        Discount discount = discount("ONCE", 10, 1);
+
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.tryRedeem(discount, "alice", NOW));
+        assertEquals(RedemptionLedger.Status.CUSTOMER_LIMIT, ledger.check(discount, "alice", NOW));
+        assertEquals(RedemptionLedger.Status.CUSTOMER_LIMIT, ledger.tryRedeem(discount, "alice", NOW));
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.tryRedeem(discount, "bob", NOW));
+        // without a customer the per-customer limit cannot be enforced
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.tryRedeem(discount, null, NOW));
+        assertEquals(3, ledger.getRedemptions("ONCE"));
+
+        // the use turned down by the customer limit was handed back to the overall limit
+        Discount tight = discount("TIGHT", 2, 1);
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.tryRedeem(tight, "alice", NOW));
+        assertEquals(RedemptionLedger.Status.CUSTOMER_LIMIT, ledger.tryRedeem(tight, "alice", NOW));
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.tryRedeem(tight, "bob", NOW));
+    }
+
+    @Test
+    void validityPeriodIsEnforced() {
+        RedemptionLedger ledger = new RedemptionLedger();
+        Discount discount = discount("WEEKEND", 0, 0);
+        discount.setValidity(NOW, NOW.plusSeconds(3600));
+
+        assertEquals(RedemptionLedger.Status.NOT_STARTED, ledger.tryRedeem(discount, null, NOW.minusMillis(1)));
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.tryRedeem(discount, null, NOW));
+        assertEquals(RedemptionLedger.Status.ENDED, ledger.tryRedeem(discount, null, NOW.plusSeconds(3600)));
+        assertEquals(1, ledger.getRedemptions("WEEKEND"));
+    }
+
+    @Test
+    void redeemAllTakesNoneWhenOneFails() {
+        RedemptionLedger ledger = new RedemptionLedger();
+        Discount first = discount("FIRST", 5, 1);
+        Discount second = discount("SECOND", 0, 0);
+        Discount soldOut = discount("SOLD", 1, 0);
+        ledger.tryRedeem(soldOut, null, NOW);
+
+        assertSame(soldOut, ledger.tryRedeemAll(List.of(first, second, soldOut), "alice", NOW));
+        assertEquals(0, ledger.getRedemptions("FIRST"));
+        assertEquals(0, ledger.getRedemptions("SECOND"));
+        assertEquals(RedemptionLedger.Status.AVAILABLE, ledger.check(first, "alice", NOW));
+
+        assertNull(ledger.tryRedeemAll(List.of(first, second), "alice", NOW));
+        assertEquals(1, ledger.getRedemptions("FIRST"));
+        assertEquals(1, ledger.getRedemptions("SECOND"));
+    }
+
+    @Test
+    void lastUseIsNeverHandedOutTwice() throws InterruptedException {
+        RedemptionLedger ledger = new RedemptionLedger();
+        Discount discount = discount("RACE", 100, 0);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 1000; j++) {
+                    if (ledger.tryRedeem(discount, null, NOW) == RedemptionLedger.Status.AVAILABLE) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }, "redeem-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100, granted.get());
+        assertEquals(100, ledger.getRedemptions("RACE"));
+    }
+
+    private static Discount discount(String code, int maxUses, int maxUsesPerCustomer) {
+        Discount discount = new Discount(code, 0.10, true, false, Set.of());
+        discount.setUsageLimits(maxUses, maxUsesPerCustomer);
+        return discount;
+    }
+}
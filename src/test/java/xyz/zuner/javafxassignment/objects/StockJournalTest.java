@@ -0,0 +1,144 @@
+package xyz.zuner.javafxassignment.objects;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * Recovery tests for the {@link StockJournal}.
+ * </p>
+ * <br>
+ * <p>Each test loads a small catalog from a temporary directory, changes the stock, and loads the catalog again
+ * without closing the first journal, the way the store comes back after a crash. The stock on hand must be the same
+ * as before the crash, and a record cut short at the end of the journal must be dropped without losing the ones
+ * before it.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+class StockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private Path catalog;
+
+    @BeforeEach
+    void writeCatalog() throws IOException {
+        catalog = directory.resolve("catalog.csv");
+        Files.writeString(catalog, """
+                upc,name,price,stock,category,options
+                001,Phone,499.99,10,Smartphones,Color=Black|Blue
+                002,Laptop,999.99,5,Laptops,
+                """);
+    }
+
+    @AfterEach
+    void closeJournal() {
+        StockJournal journal = StockJournal.getShared();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void changesSurviveACrash() {
+        Inventory inventory = new Inventory(catalog);
+        StockJournal journal = StockJournal.getShared();
+        assertNotNull(journal, "the journal should be open for an external catalog");
+
+        Product phone = inventory.getProductByUPC("001");
+        ReservationManager reservations = new ReservationManager(60_000, 1000);
+        StockHold hold = reservations.hold(phone, 3);
+        assertNotNull(hold);
+        journal.recordCheckout(List.of(hold), hold::commit);
+        inventory.updateStock("002", 2);
+        inventory.addOrUpdateProduct(new Product("Laptop", "002", 999.99, 4, "Laptops"));
+        assertTrue(journal.flush());
+
+        // the first journal is left open, as if the store had crashed
+        Inventory recovered = new Inventory(catalog);
+        assertEquals(7, recovered.getProductByUPC("001").getOnHand());
+        assertEquals(7, recovered.getProductByUPC("002").getOnHand());
+
+        // the replayed changes were folded into the snapshot, so loading again must not apply them twice
+        Inventory again = new Inventory(catalog);
+        assertEquals(7, again.getProductByUPC("001").getOnHand());
+        assertEquals(7, again.getProductByUPC("002").getOnHand());
+    }
+
+    @Test
+    void partialRecordIsTruncated() throws IOException {
+        Inventory inventory = new Inventory(catalog);
+        inventory.updateStock("001", 4);
+        assertTrue(StockJournal.getShared().flush());
+        StockJournal.getShared().close();
+
+        Path file = latestGeneration();
+        long valid = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // the header of a 64 byte record, followed by only part of its body
+            ByteBuffer torn = ByteBuffer.allocate(8 + 10).putInt(64).putInt(0x12345678);
+            channel.write(torn.flip());
+        }
+
+        Inventory recovered = new Inventory(catalog);
+        assertEquals(6, recovered.getProductByUPC("001").getOnHand());
+        assertEquals(5, recovered.getProductByUPC("002").getOnHand());
+        // the generation is truncated, then folded into the snapshot and deleted along with the torn record
+        assertTrue(Files.notExists(file) || Files.size(file) == valid, "the torn record should have been cut off");
+        assertEquals(6, new Inventory(catalog).getProductByUPC("001").getOnHand());
+    }
+
+    @Test
+    void corruptRecordStopsTheReplay() throws IOException {
+        Inventory inventory = new Inventory(catalog);
+        inventory.updateStock("001", 1);
+        assertTrue(StockJournal.getShared().flush());
+        inventory.updateStock("001", 2);
+        assertTrue(StockJournal.getShared().flush());
+        StockJournal.getShared().close();
+
+        // flip a byte in the quantity of the last record, so its checksum no longer matches
+        Path file = latestGeneration();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x7F;
+        Files.write(file, bytes);
+
+        Inventory recovered = new Inventory(catalog);
+        assertEquals(9, recovered.getProductByUPC("001").getOnHand());
+    }
+
+    private Path latestGeneration() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> generations = Files.newDirectoryStream(directory, "catalog.csv.journal.*")) {
+            generations.forEach(files::add);
+        }
+        assertFalse(files.isEmpty(), "no journal was written");
+        files.sort(null);
+        return files.get(files.size() - 1);
+    }
+}
@@ -0,0 +1,97 @@
+package xyz.zuner.javafxassignment.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <p>
+ * Rounding and formatting tests for {@link Money}.
+ * </p>
+ * <br>
+ * <p>Every rounding mode of {@link Money#divide(long, long, RoundingMode)} is checked against {@link BigDecimal},
+ * including negative amounts and exact halves.</p>
+ * <br>
+ * <p>21:198:102/02 Computers and Programming II</p>
+ * <p>JavaFX Assignment</p>
+ * <p>Rutgers ID: 199009651</p>
+ * <br>
+ *
+ * @author Zeyad "zmr15" Rashed
+ * @mailto zmr15@scarletmail.rutgers.edu
+ * @created 10/18/26, Sunday
+ */
+class MoneyTest {
+
+    @Test
+    void dollarsRoundHalfUp() {
+        assertEquals(101, Money.ofDollars(1.005)); // really 1.00499... as a double
+        assertEquals(-101, Money.ofDollars(-1.005));
+        assertEquals(30, Money.ofDollars(0.1 + 0.2));
+        assertEquals(49999, Money.ofDollars(499.99));
+        assertEquals(0, Money.ofDollars(0.004));
+        assertEquals(700, Money.ofRate(0.07));
+    }
+
+    @Test
+    void divideMatchesBigDecimal() {
+        Random random = new Random(42);
+        long[] dividends = {0, 1, -1, 5, -5, 15, -15, 25, -25, 1_000_001, Long.MAX_VALUE, Long.MIN_VALUE + 1};
+        long[] divisors = {1, -1, 2, -2, 10, -10, 3, 7, 10_000, Long.MAX_VALUE};
+        for (RoundingMode rounding : RoundingMode.values()) {
+            if (rounding == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long dividend : dividends) {
+                for (long divisor : divisors) {
+                    check(dividend, divisor, rounding);
+                }
+            }
+            for (int i = 0; i < 10_000; i++) {
+                long divisor = random.nextInt(1, 20_001) * (random.nextBoolean() ? 1L : -1L);
+                check(random.nextLong(-1_000_000_000L, 1_000_000_000L), divisor, rounding);
+            }
+        }
+    }
+
+    @Test
+    void unnecessaryRoundingThrowsOnlyWhenInexact() {
+        assertEquals(4, Money.divide(20, 5, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Money.divide(21, 5, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Money.divide(1, 0, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    void percentagesAndFractions() {
+        assertEquals(70, Money.percentOf(999, 700, RoundingMode.HALF_UP)); // 69.93
+        assertEquals(69, Money.percentOf(999, 700, RoundingMode.DOWN));
+        assertEquals(1, Money.percentOf(10, 500, RoundingMode.HALF_UP)); // exactly half a cent
+        assertEquals(0, Money.percentOf(10, 500, RoundingMode.HALF_EVEN));
+        assertEquals(333, Money.fractionOf(1000, 1, 3, RoundingMode.HALF_UP));
+        assertEquals(667, Money.fractionOf(1000, 2, 3, RoundingMode.HALF_UP));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+    }
+
+    @Test
+    void formatting() {
+        assertEquals("$1234.50", Money.format(123_450));
+        assertEquals("-$0.99", Money.format(-99));
+        assertEquals("$0.05", Money.format(5));
+        assertEquals("$0.00", Money.format(0));
+        assertEquals("-$92233720368547758.08", Money.format(Long.MIN_VALUE));
+        long[] amounts = {0, 5, -5, 99, 100, -100, 123_450, -123_450, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long cents : amounts) {
+            assertEquals(Money.format(cents).length(), Money.formattedLength(cents), "length of " + cents);
+        }
+    }
+
+    private static void check(long dividend, long divisor, RoundingMode rounding) {
+        long expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, rounding).longValueExact();
+        assertEquals(expected, Money.divide(dividend, divisor, rounding), dividend + " / " + divisor + " " + rounding);
+    }
+}